@@ -0,0 +1,50 @@
+package bench;
+
+import controller.Game;
+import model.board.MoveList;
+
+/**
+ * Checks that steady-state move generation allocates nothing: after a JIT
+ * warmup, generates the moves of the benchmark positions many times into one
+ * reused {@link MoveList} and fails (exit status 1) if the thread's allocation
+ * counter moved at all.
+ *
+ * Usage: java bench.AllocationCheck [iterations]
+ */
+public final class AllocationCheck {
+
+    private AllocationCheck() { }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Game[] games = Benchmarks.loadMiddlegames();
+        MoveList buffer = new MoveList();
+
+        boolean ok = check("BitBoard.generateMoves", iterations, () -> {
+            for (Game g : games) g.board().generateMoves(g.whiteToMove(), buffer);
+        });
+        ok &= check("BitBoard.generateMoves (both sides)", iterations, () -> {
+            for (Game g : games) {
+                g.board().generateMoves(true, buffer);
+                g.board().generateMoves(false, buffer);
+            }
+        });
+        // Legal filtering by check and pin masks
+        ok &= check("Game.legalMoves(MoveList)", iterations / 10, () -> {
+            for (Game g : games) g.legalMoves(buffer);
+        });
+        if (!ok) System.exit(1);
+    }
+
+    private static boolean check(String name, int iterations, Runnable op) {
+        for (int i = 0; i < iterations; i++) op.run(); // warmup: JIT and buffer growth
+
+        long before = Harness.allocatedBytes();
+        for (int i = 0; i < iterations; i++) op.run();
+        long bytes = Harness.allocatedBytes() - before;
+
+        System.out.printf("%-44s %,d bytes in %,d iterations: %s%n",
+                name, bytes, iterations, bytes == 0 ? "OK" : "FAIL");
+        return bytes == 0;
+    }
+}
@@ -0,0 +1,232 @@
+package bench;
+
+import controller.Game;
+import engine.TranspositionTable;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import javax.swing.border.Border;
+import javax.swing.border.LineBorder;
+import model.board.Attacks;
+import model.board.BitBoard;
+import model.board.Magics;
+import model.board.MoveList;
+import model.board.Position;
+import model.pieces.Piece;
+import view.ImageUtil;
+
+/**
+ * Microbenchmarks for the model, controller and view hot paths.
+ *
+ * Usage: java -Djava.awt.headless=true bench.Benchmarks [filter] [iterationMillis]
+ * Only benchmarks whose name contains {@code filter} are run.
+ */
+public final class Benchmarks {
+
+    /** Middlegame positions the controller benchmarks cycle through. */
+    static final String[] MIDDLEGAMES = {
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8",
+        "2rq1rk1/pb1nbppp/1p2pn2/2pp4/2PP4/1PN1PN2/PB2BPPP/2RQ1RK1 w - - 0 11",
+    };
+
+    private Benchmarks() { }
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        long iterationMillis = args.length > 1 ? Long.parseLong(args[1]) : 500;
+
+        Harness h = new Harness(3, 5, iterationMillis);
+        System.out.printf("Magic tables: %,d entries built in %.1f ms%n",
+                Magics.tableEntries(), Magics.initNanos() / 1e6);
+        System.out.println(Harness.header());
+        for (Harness.Benchmark b : all()) {
+            if (b.name().contains(filter)) h.run(b);
+        }
+    }
+
+    static List<Harness.Benchmark> all() {
+        List<Harness.Benchmark> out = new ArrayList<>();
+        Game[] games = loadMiddlegames();
+
+        // ---------- model ----------
+        out.add(new Harness.Benchmark("model.Board.copy", new Cycle<>(games, g -> g.board().copy())));
+
+        for (int type = Piece.PAWN; type <= Piece.KING; type++) {
+            Placed[] pieces = piecesOfType(games, type);
+            out.add(new Harness.Benchmark("model." + pieces[0].piece().getClass().getSimpleName() + ".getPossibleMoves",
+                    new Cycle<>(pieces, p -> p.piece().getPossibleMoves(p.board(), p.at()))));
+        }
+
+        out.add(new Harness.Benchmark("model.Attacks.rook+bishop (x64)", new Cycle<>(games, g -> {
+            long occ = g.board().occupancy();
+            long acc = 0;
+            for (int sq = 0; sq < 64; sq++) acc ^= Attacks.rook(sq, occ) ^ Attacks.bishop(sq, occ);
+            return acc != 0;
+        })));
+
+        MoveList buffer = new MoveList();
+        out.add(new Harness.Benchmark("model.BitBoard.generateMoves (side)", new Cycle<>(games, g -> {
+            g.board().generateMoves(g.whiteToMove(), buffer);
+            return buffer.size();
+        })));
+
+        // ---------- controller ----------
+        out.add(new Harness.Benchmark("controller.Game.legalMoves(MoveList)", new Cycle<>(games, g -> {
+            g.legalMoves(buffer);
+            return buffer.size();
+        })));
+        out.add(new Harness.Benchmark("controller.Game.legalMovesFrom (all)", new Cycle<>(games, g -> {
+            int n = 0;
+            for (int sq = 0; sq < 64; sq++) {
+                Piece p = g.board().pieceAt(sq);
+                if (p != null && p.isWhite() == g.whiteToMove()) {
+                    n += g.legalMovesFrom(BitBoard.position(sq)).size();
+                }
+            }
+            return n;
+        })));
+        out.add(new Harness.Benchmark("controller.Game.inCheck", new Cycle<>(games, g -> g.inCheck(g.whiteToMove()))));
+        out.add(new Harness.Benchmark("controller.Game.isCheckmate", new Cycle<>(games, g -> g.isCheckmate(g.whiteToMove()))));
+        out.add(new Harness.Benchmark("controller.Game.isSquareAttacked (x64)", new Cycle<>(games, g -> {
+            int n = 0;
+            for (int sq = 0; sq < 64; sq++) {
+                if (g.isSquareAttacked(BitBoard.position(sq), g.whiteToMove())) n++;
+            }
+            return n;
+        })));
+
+        // ---------- engine ----------
+        TranspositionTable tt = TranspositionTable.ofMegabytes(16);
+        long[] keys = new SplittableRandom(1).longs(1 << 16).toArray();
+        int[] nextKey = {0};
+        // Returns a Boolean (cached instances) so the benchmark itself allocates nothing
+        out.add(new Harness.Benchmark("engine.TranspositionTable.store+probe", () -> {
+            long key = keys[nextKey[0]++ & (keys.length - 1)];
+            tt.store(key, 5, 12, TranspositionTable.BOUND_EXACT, 0x123);
+            return tt.probe(key) != 0;
+        }));
+
+        // ---------- view ----------
+        String[] icons = {"wK.png", "wQ.png", "wR.png", "wB.png", "wN.png", "wP.png",
+                          "bK.png", "bQ.png", "bR.png", "bB.png", "bN.png", "bP.png"};
+        ImageUtil.preload(64, icons);
+        out.add(new Harness.Benchmark("view.ImageUtil.getIcon (cached)", new Cycle<>(icons, f -> ImageUtil.getIcon(f, 64))));
+        out.add(new Harness.Benchmark("view.ImageUtil.getIcon (cold)", new Cycle<>(icons, f -> {
+            ImageUtil.clearCache();
+            return ImageUtil.getIcon(f, 64);
+        })));
+
+        OffscreenBoard offscreen = new OffscreenBoard();
+        out.add(new Harness.Benchmark("view.ChessGUI.refresh (offscreen)", new Cycle<>(games, offscreen::refresh)));
+        return out;
+    }
+
+    static Game[] loadMiddlegames() {
+        Game[] games = new Game[MIDDLEGAMES.length];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = new Game();
+            games[i].loadFen(MIDDLEGAMES[i]);
+        }
+        return games;
+    }
+
+    /** A piece together with the board and square it stands on (pieces themselves are shared). */
+    private record Placed(Piece piece, BitBoard board, Position at) { }
+
+    private static Placed[] piecesOfType(Game[] games, int type) {
+        List<Placed> out = new ArrayList<>();
+        for (Game g : games) {
+            for (boolean white : new boolean[] {true, false}) {
+                BitBoard b = g.board();
+                for (int i = 0; i < b.pieceCount(white); i++) {
+                    int sq = b.pieceSquare(white, i);
+                    if (b.pieceAt(sq).type() == type) out.add(new Placed(b.pieceAt(sq), b, BitBoard.position(sq)));
+                }
+            }
+        }
+        return out.toArray(new Placed[0]);
+    }
+
+    /** Applies an operation to each input in turn, so one benchmark covers several positions. */
+    private static final class Cycle<T> implements Supplier<Object> {
+        private final T[] inputs;
+        private final Function<T, Object> op;
+        private int next;
+
+        Cycle(T[] inputs, Function<T, Object> op) {
+            this.inputs = inputs;
+            this.op = op;
+        }
+
+        @Override
+        public Object get() {
+            T in = inputs[next];
+            if (++next == inputs.length) next = 0;
+            return op.apply(in);
+        }
+    }
+
+    /**
+     * The board-drawing part of ChessGUI.refresh() on lightweight Swing components
+     * that are never shown: square colours, move borders and one label per piece.
+     */
+    private static final class OffscreenBoard {
+        private static final Color LIGHT = new Color(186, 85, 211);
+        private static final Color DARK = new Color(75, 0, 130);
+        private static final Border LASTMOVE = new LineBorder(new Color(240, 220, 90), 2, true);
+        private final JPanel boardPanel = new JPanel(new GridLayout(8, 8, 0, 0));
+        private final JPanel[][] squares = new JPanel[8][8];
+
+        OffscreenBoard() {
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+                    squares[r][c] = new JPanel(new BorderLayout());
+                    boardPanel.add(squares[r][c]);
+                }
+            }
+        }
+
+        Object refresh(Game game) {
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+                    squares[r][c].setBackground((r + c) % 2 == 0 ? LIGHT : DARK);
+                    squares[r][c].setBorder(null);
+                }
+            }
+            squares[6][4].setBorder(LASTMOVE);
+            squares[4][4].setBorder(LASTMOVE);
+
+            int iconSize = 64;
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+                    JPanel squarePanel = squares[r][c];
+                    squarePanel.removeAll();
+                    Piece p = game.board().get(Position.of(r, c));
+                    if (p != null) {
+                        JLabel pieceLabel = new JLabel();
+                        pieceLabel.setHorizontalAlignment(SwingConstants.CENTER);
+                        pieceLabel.setForeground(p.isWhite() ? Color.WHITE : DARK);
+                        pieceLabel.setText(p.getSymbol());
+                        pieceLabel.setFont(new Font("Segoe UI Symbol", Font.PLAIN, (int) (iconSize * 0.85)));
+                        squarePanel.add(pieceLabel);
+                    }
+                }
+            }
+            boardPanel.revalidate();
+            boardPanel.repaint();
+            return boardPanel;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Minimal microbenchmark runner in the spirit of JMH's throughput mode with the
+ * gc profiler: warmup iterations, timed measurement iterations, and the bytes
+ * allocated per operation read from the per-thread allocation counter.
+ *
+ * Results are consumed through {@link #sink} so the JIT cannot drop the work.
+ */
+public final class Harness {
+
+    /** One benchmark: a named operation returning something to consume. */
+    public record Benchmark(String name, Supplier<Object> op) { }
+
+    /** Throughput and allocation of one benchmark. */
+    public record Result(String name, double opsPerSec, double bytesPerOp) {
+        public double nsPerOp() { return 1e9 / opsPerSec; }
+        public double allocMbPerSec() { return bytesPerOp < 0 ? -1 : bytesPerOp * opsPerSec / (1024 * 1024); }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationMillis;
+    private final List<Result> results = new ArrayList<>();
+
+    // Blackhole: every result is folded in here
+    private static volatile int sink;
+
+    public Harness(int warmupIterations, int measureIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = measureIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    public List<Result> results() { return results; }
+
+    /** Warms up, measures and prints one benchmark line. */
+    public Result run(Benchmark b) {
+        for (int i = 0; i < warmupIterations; i++) iterate(b.op());
+
+        long ops = 0, nanos = 0, bytes = 0;
+        for (int i = 0; i < measureIterations; i++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            ops += iterate(b.op());
+            nanos += System.nanoTime() - start;
+            bytes += allocatedBytes() - bytesBefore;
+        }
+
+        double opsPerSec = ops * 1e9 / nanos;
+        double bytesPerOp = THREADS == null ? -1 : (double) bytes / ops;
+        Result r = new Result(b.name(), opsPerSec, bytesPerOp);
+        results.add(r);
+        System.out.println(format(r));
+        return r;
+    }
+
+    public static String header() {
+        return String.format(Locale.ROOT, "%-44s %14s %12s %12s %12s",
+                "Benchmark", "ops/s", "ns/op", "B/op", "alloc MB/s");
+    }
+
+    public static String format(Result r) {
+        return String.format(Locale.ROOT, "%-44s %,14.1f %,12.1f %,12.1f %,12.1f",
+                r.name(), r.opsPerSec(), r.nsPerOp(), r.bytesPerOp(), r.allocMbPerSec());
+    }
+
+    /** Bytes allocated so far by the calling thread, or 0 if the JVM can't tell. */
+    public static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /** Feeds a value to the blackhole. */
+    public static void consume(Object o) {
+        sink += System.identityHashCode(o);
+    }
+
+    public static void consume(long v) {
+        sink += (int) (v ^ (v >>> 32));
+    }
+
+    // Runs the op in batches until the iteration time is used up; returns the op count.
+    private long iterate(Supplier<Object> op) {
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000L;
+        long count = 0;
+        int batch = 1;
+        do {
+            for (int i = 0; i < batch; i++) consume(op.get());
+            count += batch;
+            if (batch < 1 << 16) batch <<= 1;
+        } while (System.nanoTime() < deadline);
+        return count;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            var bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean tb && tb.isThreadAllocatedMemorySupported()) {
+                tb.setThreadAllocatedMemoryEnabled(true);
+                return tb;
+            }
+        } catch (Throwable ignored) {
+        }
+        return null;
+    }
+}
@@ -0,0 +1,104 @@
+package bench;
+
+import controller.Game;
+import engine.Evaluator;
+import engine.LayeredEvaluator;
+import engine.LazySmp;
+import engine.PawnCache;
+import engine.PstEvaluator;
+import engine.Search;
+import engine.SearchResult;
+import engine.TimeManager;
+import engine.TranspositionTable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Lazy SMP scaling: searches the middlegame positions for a fixed time with
+ * 1, 2, 4, ... threads and reports nodes per second, the depth reached and
+ * the speedup over one thread.
+ *
+ * The evaluator can be chosen to compare speed against the depth it buys:
+ * "layered" (default) or "pst" (material and piece-square tables only).
+ * With "layered", the hit rate of the per-thread pawn caches is reported too.
+ *
+ * Usage: java bench.SmpScaling [millisPerPosition] [maxThreads] [layered|pst]
+ */
+public final class SmpScaling {
+
+    private static final int TT_MEGABYTES = 16;
+
+    private SmpScaling() { }
+
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : LazySmp.defaultThreads();
+        // Pawn caches of every evaluator created, to report their hit rate
+        List<PawnCache> pawnCaches = new CopyOnWriteArrayList<>();
+        Supplier<Evaluator> evaluators = evaluator(args.length > 2 ? args[2] : "layered", pawnCaches);
+
+        Game[] games = Benchmarks.loadMiddlegames();
+        warmup(games, millis, evaluators);
+
+        System.out.printf("%-8s %14s %10s %9s %8s %10s%n",
+                "threads", "nodes/s", "avg depth", "speedup", "tt hits", "pawn hits");
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads = next(threads, maxThreads)) {
+            pawnCaches.clear();
+            LazySmp smp = new LazySmp(threads, TranspositionTable.ofMegabytes(TT_MEGABYTES), evaluators);
+            long nodes = 0;
+            long nanos = 0;
+            int depth = 0;
+            long hits = 0;
+            long probes = 0;
+            for (Game g : games) {
+                smp.table().clear();
+                long t0 = System.nanoTime();
+                SearchResult r = smp.search(g, Search.MAX_PLY, TimeManager.fixed(millis));
+                nanos += System.nanoTime() - t0;
+                nodes += smp.lastNodes();
+                depth += r.depth();
+                hits += smp.lastTtHits();
+                probes += smp.lastTtHits() + smp.lastTtMisses();
+            }
+            smp.shutdown();
+            long pawnHits = 0;
+            long pawnProbes = 0;
+            for (PawnCache c : pawnCaches) {
+                pawnHits += c.hits();
+                pawnProbes += c.hits() + c.misses();
+            }
+
+            double nps = nodes / (nanos / 1e9);
+            if (threads == 1) baseline = nps;
+            System.out.printf("%-8d %14.0f %10.1f %8.2fx %7.1f%% %9s%n",
+                    threads, nps, depth / (double) games.length, nps / baseline, 100.0 * hits / probes,
+                    pawnProbes == 0 ? "-" : String.format("%.1f%%", 100.0 * pawnHits / pawnProbes));
+        }
+    }
+
+    // JIT warmup so the single-thread baseline isn't measured on interpreted code
+    private static void warmup(Game[] games, long millis, Supplier<Evaluator> evaluators) {
+        LazySmp smp = new LazySmp(1, TranspositionTable.ofMegabytes(TT_MEGABYTES), evaluators);
+        for (Game g : games) smp.search(g, Search.MAX_PLY, TimeManager.fixed(millis));
+        smp.shutdown();
+    }
+
+    private static Supplier<Evaluator> evaluator(String name, List<PawnCache> pawnCaches) {
+        return switch (name) {
+            case "layered" -> () -> {
+                LayeredEvaluator e = new LayeredEvaluator();
+                pawnCaches.add(e.pawnCache());
+                return e;
+            };
+            case "pst" -> PstEvaluator::new;
+            default -> throw new IllegalArgumentException("Unknown evaluator: " + name + " (layered or pst)");
+        };
+    }
+
+    // 1, 2, 4, ... and finally maxThreads itself if it isn't a power of two
+    private static int next(int threads, int maxThreads) {
+        return threads < maxThreads && threads * 2 > maxThreads ? maxThreads : threads * 2;
+    }
+}
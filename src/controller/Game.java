@@ -1,46 +1,250 @@
 package controller;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import model.board.Board;
+import model.board.Attacks;
+import model.board.BitBoard;
+import model.board.Move;
+import model.board.MoveList;
+import model.board.PackedMove;
 import model.board.Position;
+import model.board.Zobrist;
 import model.pieces.*;
 
 public class Game {
 
-    private Board board;
+    /** Why a finished game was drawn. */
+    public enum DrawReason { STALEMATE, FIFTY_MOVES, THREEFOLD_REPETITION, INSUFFICIENT_MATERIAL }
+
+    // Squares of the same colour as a8
+    private static final long LIGHT_SQUARES = 0xAA55AA55AA55AA55L;
+
+    private static final int ALL_CASTLING = Zobrist.CASTLE_WHITE_KING | Zobrist.CASTLE_WHITE_QUEEN
+            | Zobrist.CASTLE_BLACK_KING | Zobrist.CASTLE_BLACK_QUEEN;
+
+    // Rights that survive a move touching each square (from or to): moving a king or a
+    // rook, or capturing a rook on its corner, drops the rights that depend on it
+    private static final int[] CASTLING_KEPT = new int[64];
+    static {
+        Arrays.fill(CASTLING_KEPT, ALL_CASTLING);
+        CASTLING_KEPT[0] &= ~Zobrist.CASTLE_BLACK_QUEEN;  // a8
+        CASTLING_KEPT[7] &= ~Zobrist.CASTLE_BLACK_KING;   // h8
+        CASTLING_KEPT[4] &= ~(Zobrist.CASTLE_BLACK_KING | Zobrist.CASTLE_BLACK_QUEEN); // e8
+        CASTLING_KEPT[56] &= ~Zobrist.CASTLE_WHITE_QUEEN; // a1
+        CASTLING_KEPT[63] &= ~Zobrist.CASTLE_WHITE_KING;  // h1
+        CASTLING_KEPT[60] &= ~(Zobrist.CASTLE_WHITE_KING | Zobrist.CASTLE_WHITE_QUEEN); // e1
+    }
+
+    private BitBoard board;
     private boolean whiteToMove = true;
     private boolean gameOver = false;
 
     // Square where an en-passant capture may land (the empty square)
     private Position enPassantTarget = null;
 
-    private final List<String> history = new ArrayList<>();
+    // Castling rights still available, as a Zobrist.CASTLE_* mask
+    private int castlingRights = ALL_CASTLING;
+
+    // Plies since the last capture or pawn move
+    private int halfmoveClock = 0;
+
+    // Zobrist key of the current position (kept incrementally by makeMove/unmakeMove)
+    private long zobristKey;
+    // Zobrist key of the pawns alone (same piece keys), for caching pawn-structure evaluation
+    private long pawnKey;
+
+    // Keys of the positions before each ply played (keyHistory[keyCount - 1] = one ply ago).
+    // Repetition scans only the last halfmoveClock entries: nothing before an irreversible
+    // move can repeat. copy() carries just that tail so searches on a copy see it too.
+    private long[] keyHistory = new long[256];
+    private int keyCount = 0;
+
+    private DrawReason drawReason = null;
+
+    // When on, every make/unmake checks the incremental key against a full recomputation
+    private boolean verifyZobrist = Boolean.getBoolean("chess.verifyZobrist");
+
+    // Moves played through move(); never copied (copy() and the search don't carry it)
+    private final MoveHistory history = new MoveHistory();
+
+    // Legal move generation, and a scratch buffer for existence checks
+    private final MoveGenerator generator = new MoveGenerator(this);
+    private final MoveList scratch = new MoveList();
+
+    // Legal moves of the current position, generated at most once per ply: game-end
+    // detection, the GUI's highlights and promotion checks all read from here.
+    // Every change of position (make/unmake, new game, FEN) invalidates it.
+    private final MoveList legalCache = new MoveList();
+    private boolean legalCacheValid = false;
+
+    // make/unmake undo records
+    private Undo[] undoStack = new Undo[64];
+    private int undoCount = 0;
 
     // Public ctor (starts a fresh game)
     public Game() {
-        this.board = new Board();
+        this.board = new BitBoard();
         setupPieces();
+        this.zobristKey = computeZobristKey();
+        this.pawnKey = computePawnKey();
     }
 
-    // Private ctor used for snapshots (no setup)
-    private Game(boolean empty) { /* intentionally empty */ }
+    // Used by copy() (board already set up)
+    private Game(BitBoard board) {
+        this.board = board;
+    }
 
     // --------- Public getters ----------
-    public Board board() { return board; }
+    public BitBoard board() { return board; }
     public boolean whiteToMove() { return whiteToMove; }
     public boolean isGameOver() { return gameOver; }
-    public List<String> history() { return Collections.unmodifiableList(history); }
+    public int halfmoveClock() { return halfmoveClock; }
+    public long zobristKey() { return zobristKey; }
+    public long pawnKey() { return pawnKey; }
+    /** Notation of the moves played through {@link #move}, built lazily on access (read-only view). */
+    public List<String> history() { return history.asStrings(); }
+    Position enPassantTarget() { return enPassantTarget; }
 
     // --------- New game ----------
     public void newGame() {
-        this.board = new Board();
+        this.board = new BitBoard();
         this.whiteToMove = true;
         this.gameOver = false;
         this.enPassantTarget = null;
+        this.castlingRights = ALL_CASTLING;
+        this.halfmoveClock = 0;
+        this.undoCount = 0;
+        this.keyCount = 0;
+        this.drawReason = null;
         this.history.clear();
         setupPieces();
+        this.zobristKey = computeZobristKey();
+        this.pawnKey = computePawnKey();
+        this.legalCacheValid = false;
+    }
+
+    // --------- Load a position (FEN) ----------
+    /**
+     * Replaces the current game with the position described by a FEN string
+     * (placement, side, castling, en passant, halfmove clock; the fullmove
+     * number is ignored). A castling right is kept only if its king and rook
+     * stand on their original squares.
+     *
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public void loadFen(String fen) {
+        String[] parts = fen == null ? new String[0] : fen.trim().split("\\s+");
+        if (parts.length < 2) throw new IllegalArgumentException("Invalid FEN: " + fen);
+
+        boolean white = switch (parts[1]) {
+            case "w" -> true;
+            case "b" -> false;
+            default -> throw new IllegalArgumentException("Invalid FEN side to move: " + parts[1]);
+        };
+
+        BitBoard b = new BitBoard();
+        String[] ranks = parts[0].split("/");
+        if (ranks.length != 8) throw new IllegalArgumentException("Invalid FEN placement: " + parts[0]);
+        for (int row = 0; row < 8; row++) {
+            int col = 0;
+            for (char ch : ranks[row].toCharArray()) {
+                if (Character.isDigit(ch)) {
+                    col += ch - '0';
+                    continue;
+                }
+                if (col > 7) throw new IllegalArgumentException("Invalid FEN rank: " + ranks[row]);
+                boolean w = Character.isUpperCase(ch);
+                int type = switch (Character.toUpperCase(ch)) {
+                    case 'P' -> Piece.PAWN;
+                    case 'N' -> Piece.KNIGHT;
+                    case 'B' -> Piece.BISHOP;
+                    case 'R' -> Piece.ROOK;
+                    case 'Q' -> Piece.QUEEN;
+                    case 'K' -> Piece.KING;
+                    default -> throw new IllegalArgumentException("Invalid FEN piece: " + ch);
+                };
+                b.placePiece(Piece.of(type, w), Position.of(row, col));
+                col++;
+            }
+            if (col != 8) throw new IllegalArgumentException("Invalid FEN rank: " + ranks[row]);
+        }
+
+        String castling = parts.length > 2 ? parts[2] : "-";
+        int rights = 0;
+        for (char ch : castling.toCharArray()) {
+            if (ch == '-') continue;
+            boolean w = Character.isUpperCase(ch);
+            int row = w ? 7 : 0;
+            int rookCol = switch (Character.toUpperCase(ch)) {
+                case 'K' -> 7;
+                case 'Q' -> 0;
+                default -> throw new IllegalArgumentException("Invalid FEN castling: " + castling);
+            };
+            if (b.pieceAt(row * 8 + 4) == Piece.of(Piece.KING, w) && b.pieceAt(row * 8 + rookCol) == Piece.of(Piece.ROOK, w)) {
+                rights |= rookCol == 7
+                        ? (w ? Zobrist.CASTLE_WHITE_KING : Zobrist.CASTLE_BLACK_KING)
+                        : (w ? Zobrist.CASTLE_WHITE_QUEEN : Zobrist.CASTLE_BLACK_QUEEN);
+            }
+        }
+
+        Position ep = null;
+        if (parts.length > 3 && !parts[3].equals("-")) {
+            String sq = parts[3];
+            if (sq.length() != 2) throw new IllegalArgumentException("Invalid FEN en passant: " + sq);
+            ep = Position.of(8 - (sq.charAt(1) - '0'), sq.charAt(0) - 'a');
+            // The target is the square a double push just skipped: rank 6 if White is to move, rank 3 if Black
+            if (!ep.isValid() || ep.getRow() != (white ? 2 : 5)) {
+                throw new IllegalArgumentException("Invalid FEN en passant: " + sq);
+            }
+        }
+
+        int halfmove = 0;
+        if (parts.length > 4) {
+            try {
+                halfmove = Integer.parseInt(parts[4]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid FEN halfmove clock: " + parts[4], e);
+            }
+        }
+
+        this.board = b;
+        this.whiteToMove = white;
+        this.gameOver = false;
+        this.enPassantTarget = ep;
+        this.castlingRights = rights;
+        this.halfmoveClock = halfmove;
+        this.undoCount = 0;
+        this.keyCount = 0;
+        this.drawReason = null;
+        this.history.clear();
+        this.zobristKey = computeZobristKey();
+        this.pawnKey = computePawnKey();
+        this.legalCacheValid = false;
+    }
+
+    // --------- Copy ----------
+    /**
+     * Independent copy of the current position (board, side, en passant, clocks, key),
+     * e.g. for the engine to search on while the GUI keeps using this game.
+     * History and undo records are not copied.
+     */
+    public Game copy() {
+        Game g = new Game(board.copy());
+        g.whiteToMove = this.whiteToMove;
+        g.gameOver = this.gameOver;
+        g.enPassantTarget = this.enPassantTarget;
+        g.castlingRights = this.castlingRights;
+        g.halfmoveClock = this.halfmoveClock;
+        g.zobristKey = this.zobristKey;
+        g.pawnKey = this.pawnKey;
+        int tail = Math.min(keyCount, halfmoveClock);
+        if (tail > g.keyHistory.length) g.keyHistory = new long[Math.max(tail, 2 * g.keyHistory.length)];
+        System.arraycopy(keyHistory, keyCount - tail, g.keyHistory, 0, tail);
+        g.keyCount = tail;
+        g.drawReason = this.drawReason;
+        g.verifyZobrist = this.verifyZobrist;
+        return g;
     }
 
     // --------- Query legal moves ----------
@@ -49,483 +253,441 @@ public class Game {
         return legalMovesFromWithSpecials(from);
     }
 
+    /** All legal moves of the side to move, with promotions expanded to Q, R, B and N. */
+    public List<Move> legalMoves() {
+        MoveList packed = new MoveList();
+        legalMoves(packed);
+        List<Move> out = new ArrayList<>(packed.size());
+        for (int i = 0; i < packed.size(); i++) out.add(Move.decode(packed.get(i), board));
+        return out;
+    }
+
+    /**
+     * Fills {@code out} (cleared first) with the legal moves of the side to move
+     * as {@link PackedMove} codes, promotions expanded to Q, R, B and N.
+     * Legality comes from check and pin masks ({@link MoveGenerator}); no move
+     * is played to test it, and nothing is allocated once {@code out} has grown.
+     */
+    public void legalMoves(MoveList out) {
+        generator.generate(out);
+    }
+
+    /** True if from -> to is a legal promotion for the side to move. */
     public boolean isPromotion(Position from, Position to) {
-        Piece p = board.get(from);
-        if (!(p instanceof Pawn)) return false;
-        return p.isWhite() ? to.getRow() == 0 : to.getRow() == 7;
+        if (!from.isValid() || !to.isValid()) return false;
+        MoveList legal = cachedLegalMoves();
+        int f = from.index(), t = to.index();
+        for (int i = 0; i < legal.size(); i++) {
+            int m = legal.get(i);
+            if (PackedMove.from(m) == f && PackedMove.to(m) == t) return PackedMove.promotion(m) >= 0;
+        }
+        return false;
     }
 
     // --------- Make a move (only if legal) ----------
     public void move(Position from, Position to, Character promotion) {
-        if (gameOver) return;
+        if (gameOver || !from.isValid() || !to.isValid()) return;
 
-        Piece p = board.get(from);
-        if (p == null || p.isWhite() != whiteToMove) return;
+        // Enforce legality (includes castling & en passant & king-safety): the move must be in this ply's list
+        int move = findLegal(from.index(), to.index(), PackedMove.promotionType(promotion));
+        if (move == PackedMove.NONE) return;
 
-        // Enforce legality (includes castling & en passant & king-safety)
-        List<Position> legal = legalMovesFromWithSpecials(from);
-        if (!legal.contains(to)) return;
+        makeMove(move);
 
-        boolean isKing = p instanceof King;
-        boolean isPawn = p instanceof Pawn;
-        int dCol = Math.abs(to.getColumn() - from.getColumn());
-
-        Piece capturedBefore = board.get(to); // for SAN-ish history
-        boolean targetIsKing = (capturedBefore instanceof King);
-
-        // ------- Castling (already validated in legal moves) -------
-        if (isKing && dCol == 2) {
-            int row = from.getRow();
-            // Move king
-            board.set(to, p);
-            board.set(from, null);
-            p.setMoved(true);
-
-            String san;
-            if (to.getColumn() == 6) {
-                // Short castle: rook h->f
-                Piece rook = board.get(new Position(row, 7));
-                board.set(new Position(row, 5), rook);
-                board.set(new Position(row, 7), null);
-                if (rook != null) rook.setMoved(true);
-                san = "O-O";
-            } else {
-                // Long castle: rook a->d
-                Piece rook = board.get(new Position(row, 0));
-                board.set(new Position(row, 3), rook);
-                board.set(new Position(row, 0), null);
-                if (rook != null) rook.setMoved(true);
-                san = "O-O-O";
-            }
+        // annotate + or #, and end the game on mate or stalemate: one generation for the new ply,
+        // which then also serves the GUI's highlights until the next move
+        boolean check = inCheck(whiteToMove);
+        boolean noMoves = cachedLegalMoves().isEmpty();
+        if (check && noMoves) gameOver = true;
+        history.add(move, !check ? MoveHistory.NO_MARK : noMoves ? MoveHistory.MATE : MoveHistory.CHECK);
+        if (!gameOver) checkGameEnd();
+    }
 
-            enPassantTarget = null;
-            // Switch side
-            whiteToMove = !whiteToMove;
-
-            // annotate + or #
-            if (isCheckmate(whiteToMove)) {
-                san += "#";
-                gameOver = true;
-            } else if (inCheck(whiteToMove)) {
-                san += "+";
+    // Legal move from -> to (promotions: the given piece type), or NONE
+    private int findLegal(int from, int to, int promotionType) {
+        MoveList legal = cachedLegalMoves();
+        for (int i = 0; i < legal.size(); i++) {
+            int m = legal.get(i);
+            if (PackedMove.from(m) == from && PackedMove.to(m) == to
+                    && (PackedMove.promotion(m) < 0 || PackedMove.promotion(m) == promotionType)) {
+                return m;
             }
-            addHistory(san);
-
-            if (!gameOver) checkGameEnd();
-            return;
         }
+        return PackedMove.NONE;
+    }
 
-        // ------- En Passant (already validated in legal moves) -------
-        boolean diagonal = from.getColumn() != to.getColumn();
-        boolean toIsEmpty = board.get(to) == null;
-        boolean isEnPassant = isPawn && diagonal && toIsEmpty && to.equals(enPassantTarget);
-
-        String moveStr;
-
-        if (isEnPassant) {
-            // Move pawn to target
-            board.set(to, p);
-            board.set(from, null);
-            // Remove the pawn that moved two squares last turn (victim behind target)
-            int dir = p.isWhite() ? 1 : -1;
-            Position victim = new Position(to.getRow() + dir, to.getColumn());
-            board.set(victim, null);
-            p.setMoved(true);
-            moveStr = coord(from) + "x" + coord(to) + " e.p.";
-            enPassantTarget = null;
+    // --------- Make / unmake (in place, no legality checks) ----------
 
-            // Switch side
-            whiteToMove = !whiteToMove;
+    /**
+     * Plays an already-validated move on this game's board, in place, and pushes an
+     * undo record so {@link #unmakeMove()} can restore the exact previous state.
+     * Handles castling, en passant, promotion (auto-queen when promotion is null),
+     * en-passant availability, the halfmove clock and the side to move.
+     * Does not touch history or game-over state.
+     *
+     * @throws IllegalArgumentException if {@code from} is empty (no undo record is pushed,
+     *         so every successful make has exactly one matching unmake)
+     */
+    public void makeMove(Position from, Position to, Character promotion) {
+        Piece p = board.get(from);
+        if (p == null) throw new IllegalArgumentException("No piece on " + from);
+
+        legalCacheValid = false;
+        Undo u = pushUndo();
+        u.from = from;
+        u.to = to;
+        u.moved = p;
+        u.prevEnPassant = enPassantTarget;
+        u.prevCastlingRights = castlingRights;
+        u.prevHalfmoveClock = halfmoveClock;
+        u.prevPawnKey = pawnKey;
+        if (keyCount == keyHistory.length) keyHistory = Arrays.copyOf(keyHistory, keyCount * 2);
+        keyHistory[keyCount++] = zobristKey;
+        u.rook = null;
+
+        // Castling rights and en passant are re-hashed after the move
+        long key = zobristKey
+                ^ Zobrist.castling(castlingRights())
+                ^ Zobrist.enPassant(hashedEnPassantFile())
+                ^ Zobrist.piece(p, BitBoard.square(from));
 
-            // annotate + or #
-            if (isCheckmate(whiteToMove)) {
-                moveStr += "#";
-                gameOver = true;
-            } else if (inCheck(whiteToMove)) {
-                moveStr += "+";
-            }
-            addHistory(moveStr);
+        boolean isPawn = p instanceof Pawn;
+        boolean diagonal = from.getColumn() != to.getColumn();
 
-            if (!gameOver) checkGameEnd();
-            return;
+        // Captured piece (en passant: the pawn behind the target square)
+        Piece captured = board.get(to);
+        Position capturedAt = to;
+        if (isPawn && diagonal && captured == null && to == enPassantTarget) {
+            int dir = p.isWhite() ? 1 : -1; // victim behind target
+            capturedAt = Position.of(to.getRow() + dir, to.getColumn());
+            captured = board.get(capturedAt);
+            board.set(capturedAt, null);
+        }
+        if (captured != null) key ^= Zobrist.piece(captured, BitBoard.square(capturedAt));
+        u.captured = captured;
+        u.capturedAt = capturedAt;
+
+        // Base move (promotion replaces the pawn on arrival)
+        Piece placed = p;
+        if (isPawn && (to.getRow() == 0 || to.getRow() == 7)) {
+            placed = Piece.of(PackedMove.promotionType(promotion), p.isWhite()); // null = queen
         }
+        board.set(from, null);
+        board.set(to, placed);
+        key ^= Zobrist.piece(placed, BitBoard.square(to));
 
-        // ------- Promotion (auto-queen if promotion is null) -------
-        if (isPawn && isPromotion(from, to)) {
-            char ch = (promotion == null) ? 'Q' : Character.toUpperCase(promotion);
-            Piece np = switch (ch) {
-                case 'R' -> new Rook(board, p.isWhite());
-                case 'B' -> new Bishop(board, p.isWhite());
-                case 'N' -> new Knight(board, p.isWhite());
-                default  -> new Queen(board, p.isWhite());
-            };
-            np.setMoved(true);
-            board.set(from, null);
-            board.set(to, np);
-
-            // >>> segurança: se, por algum motivo, havia um Rei na casa alvo (não deveria), termina
-            if (targetIsKing) {
-                String san = coord(from) + "x" + coord(to) + "=" + np.getSymbol() + "#";
-                addHistory(san);
-                gameOver = true;
-                return;
-            }
+        if (isPawn) pawnKey ^= Zobrist.piece(p, BitBoard.square(from));
+        if (placed instanceof Pawn) pawnKey ^= Zobrist.piece(placed, BitBoard.square(to));
+        if (captured instanceof Pawn) pawnKey ^= Zobrist.piece(captured, BitBoard.square(capturedAt));
 
-            moveStr = coord(from) + (capturedBefore != null ? "x" : "-") + coord(to) + "=" + np.getSymbol();
-        } else {
-            // Normal move / capture
-            board.set(to, p);
-            board.set(from, null);
-            p.setMoved(true);
-
-            // >>> segurança: se capturamos um Rei (não deveria acontecer), termina imediatamente
-            if (targetIsKing) {
-                String san = coord(from) + "x" + coord(to) + "#";
-                addHistory(san);
-                gameOver = true;
-                return;
+        // Castling: king moves two columns, rook jumps over it
+        if (p instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            int row = to.getRow();
+            boolean shortSide = to.getColumn() == 6;
+            Position rookFrom = Position.of(row, shortSide ? 7 : 0);
+            Position rookTo = Position.of(row, shortSide ? 5 : 3);
+            Piece rook = board.get(rookFrom);
+            if (rook != null) {
+                u.rook = rook;
+                u.rookFrom = rookFrom;
+                u.rookTo = rookTo;
+                board.set(rookTo, rook);
+                board.set(rookFrom, null);
+                key ^= Zobrist.piece(rook, BitBoard.square(rookFrom)) ^ Zobrist.piece(rook, BitBoard.square(rookTo));
             }
-
-            moveStr = coord(from) + (capturedBefore != null ? "x" : "-") + coord(to);
         }
 
-        // ------- En-passant availability after a double pawn push -------
+        // En-passant availability after a double pawn push
         if (isPawn && Math.abs(to.getRow() - from.getRow()) == 2) {
-            int mid = (to.getRow() + from.getRow()) / 2;
-            enPassantTarget = new Position(mid, from.getColumn());
+            enPassantTarget = Position.of((to.getRow() + from.getRow()) / 2, from.getColumn());
         } else {
             enPassantTarget = null;
         }
 
-        // Switch side
+        castlingRights &= CASTLING_KEPT[from.index()] & CASTLING_KEPT[to.index()];
+        halfmoveClock = (isPawn || captured != null) ? 0 : halfmoveClock + 1;
         whiteToMove = !whiteToMove;
 
-        // annotate + or #
-        if (isCheckmate(whiteToMove)) {
-            moveStr += "#";
-            gameOver = true;
-        } else if (inCheck(whiteToMove)) {
-            moveStr += "+";
-        }
-
-        addHistory(moveStr);
-        if (!gameOver) checkGameEnd();
+        zobristKey = key
+                ^ Zobrist.sideToMove(true) ^ Zobrist.sideToMove(false) // flip side to move
+                ^ Zobrist.castling(castlingRights())
+                ^ Zobrist.enPassant(hashedEnPassantFile());
+        if (verifyZobrist) checkZobristKey("makeMove " + from + to);
     }
 
-    // --------- Checks / mates ----------
-    public boolean inCheck(boolean whiteSide) {
-        Position k = findKing(whiteSide);
-        // Se o rei não existe no tabuleiro, trate como "em xeque" (estado inválido/terminal).
-        if (k == null) return true;
-        return isSquareAttacked(k, whiteSide);
+    /** Plays a {@link PackedMove} code from {@link #legalMoves(MoveList)}; see {@link #makeMove(Position, Position, Character)}. */
+    public void makeMove(int move) {
+        makeMove(Position.of(PackedMove.from(move)), Position.of(PackedMove.to(move)), PackedMove.promotionChar(move));
     }
 
-    public boolean isCheckmate(boolean whiteSide) {
-        if (!inCheck(whiteSide)) return false;
+    /** Reverts the last {@link #makeMove} (LIFO). No-op if there is nothing to undo. */
+    public void unmakeMove() {
+        if (undoCount == 0) return;
+        Undo u = undoStack[--undoCount];
+        legalCacheValid = false;
 
-        // If the side has any legal move that avoids check, it's not mate
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position from = new Position(row, col);
-                Piece piece = board.get(from);
-                if (piece != null && piece.isWhite() == whiteSide) {
-                    for (Position to : legalMovesFromWithSpecials(from)) {
-                        Game g = snapshotShallow();
-                        g.forceMoveNoChecks(from, to);
-                        if (!g.inCheck(whiteSide)) return false;
-                    }
-                }
-            }
+        whiteToMove = !whiteToMove;
+        enPassantTarget = u.prevEnPassant;
+        castlingRights = u.prevCastlingRights;
+        halfmoveClock = u.prevHalfmoveClock;
+        zobristKey = keyHistory[--keyCount];
+        pawnKey = u.prevPawnKey;
+
+        if (u.rook != null) {
+            board.set(u.rookTo, null);
+            board.set(u.rookFrom, u.rook);
         }
-        return true;
+
+        board.set(u.to, null);
+        board.set(u.from, u.moved);
+        if (u.captured != null) board.set(u.capturedAt, u.captured);
+
+        if (verifyZobrist) checkZobristKey("unmakeMove " + u.from + u.to);
     }
 
-    private void checkGameEnd() {
-        // Checkmate
-        if (isCheckmate(whiteToMove)) {
-            gameOver = true;
-            addHistory("Checkmate: " + (whiteToMove ? "White" : "Black") + " loses");
-            return;
-        }
+    // --------- Position key ----------
 
-        // Stalemate: no legal moves and not in check
-        if (!inCheck(whiteToMove)) {
-            boolean hasAny = false;
-            for (int r = 0; r < 8 && !hasAny; r++) {
-                for (int c = 0; c < 8 && !hasAny; c++) {
-                    Position from = new Position(r, c);
-                    Piece piece = board.get(from);
-                    if (piece != null && piece.isWhite() == whiteToMove) {
-                        if (!legalMovesFromWithSpecials(from).isEmpty()) {
-                            hasAny = true;
-                        }
-                    }
-                }
-            }
-            if (!hasAny) {
-                gameOver = true;
-                addHistory("Draw: stalemate");
-            }
+    /** Turns the from-scratch key verification of every make/unmake on or off (for tests). */
+    public void setZobristVerification(boolean on) { this.verifyZobrist = on; }
+
+    /** Zobrist key recomputed from scratch (the incremental {@link #zobristKey()} must always match it). */
+    public long computeZobristKey() {
+        long key = 0;
+        for (long occ = board.occupancy(); occ != 0; occ &= occ - 1) {
+            int sq = Long.numberOfTrailingZeros(occ);
+            key ^= Zobrist.piece(board.pieceAt(sq), sq);
         }
+        return key
+                ^ Zobrist.sideToMove(whiteToMove)
+                ^ Zobrist.castling(castlingRights())
+                ^ Zobrist.enPassant(hashedEnPassantFile());
     }
 
-    // --------- Helpers: legality & attack maps ----------
-    private List<Position> legalMovesFromWithSpecials(Position from) {
-        Piece p = board.get(from);
-        if (p == null || p.isWhite() != whiteToMove) return List.of();
-
-        List<Position> moves = new ArrayList<>(p.getPossibleMoves());
-
-        // En Passant candidate square
-        if (p instanceof Pawn && enPassantTarget != null) {
-            int dir = p.isWhite() ? -1 : 1; // white pawns go up (row--), so attack is -1
-            if (from.getRow() + dir == enPassantTarget.getRow()
-                    && Math.abs(from.getColumn() - enPassantTarget.getColumn()) == 1) {
-                // Ensure there is an enemy pawn on the square behind target
-                Piece victim = board.get(new Position(enPassantTarget.getRow() - dir, enPassantTarget.getColumn()));
-                if (victim instanceof Pawn && victim.isWhite() != p.isWhite()) {
-                    moves.add(enPassantTarget);
-                }
+    /** Pawn key recomputed from scratch (the incremental {@link #pawnKey()} must always match it). */
+    public long computePawnKey() {
+        long key = 0;
+        for (boolean white : new boolean[] {true, false}) {
+            for (long bb = board.bitboard(Piece.PAWN, white); bb != 0; bb &= bb - 1) {
+                int sq = Long.numberOfTrailingZeros(bb);
+                key ^= Zobrist.piece(board.pieceAt(sq), sq);
             }
         }
+        return key;
+    }
 
-        // Castling candidates (king not moved, not in check, path empty, pass squares not attacked)
-        if (p instanceof King && !p.hasMoved() && !inCheck(p.isWhite())) {
-            int row = from.getRow();
-            // Short castle to g-file (col 6)
-            if (canCastle(row, 4, 7, 5, 6, p.isWhite())) moves.add(new Position(row, 6));
-            // Long castle to c-file (col 2)
-            if (canCastle(row, 4, 0, 3, 2, p.isWhite())) moves.add(new Position(row, 2));
+    private void checkZobristKey(String where) {
+        long expected = computeZobristKey();
+        if (zobristKey != expected) {
+            throw new IllegalStateException("Zobrist key out of sync after " + where
+                    + ": incremental " + Long.toHexString(zobristKey) + ", recomputed " + Long.toHexString(expected));
+        }
+        long expectedPawns = computePawnKey();
+        if (pawnKey != expectedPawns) {
+            throw new IllegalStateException("Pawn key out of sync after " + where
+                    + ": incremental " + Long.toHexString(pawnKey) + ", recomputed " + Long.toHexString(expectedPawns));
         }
+    }
 
-        // >>> NUNCA permitir "capturar" Rei inimigo
-        moves.removeIf(to -> {
-            Piece tgt = board.get(to);
-            return (tgt instanceof King) && (tgt.isWhite() != p.isWhite());
-        });
+    /** Castling rights still available, as a Zobrist.CASTLE_* mask. */
+    int castlingRights() {
+        return castlingRights;
+    }
 
-        // Filter out moves que deixam o próprio rei em xeque
-        moves.removeIf(to -> leavesKingInCheck(from, to));
-        return moves;
+    /**
+     * File of the en-passant target if the side to move has a pawn that could
+     * capture there, else -1 (a target nobody can use doesn't change the position).
+     */
+    private int hashedEnPassantFile() {
+        if (enPassantTarget == null) return -1;
+        int col = enPassantTarget.getColumn();
+        // Capturing pawns stand beside the pawn that just double-pushed
+        int row = enPassantTarget.getRow() + (whiteToMove ? 1 : -1);
+        long pawns = board.bitboard(Piece.PAWN, whiteToMove);
+        long beside = 0;
+        if (col > 0) beside |= 1L << (row * 8 + col - 1);
+        if (col < 7) beside |= 1L << (row * 8 + col + 1);
+        return (pawns & beside) != 0 ? col : -1;
     }
 
-    private boolean canCastle(int row, int kingCol, int rookCol, int passCol1, int passCol2, boolean whiteSide) {
-        Piece rook = board.get(new Position(row, rookCol));
-        if (!(rook instanceof Rook) || rook.hasMoved()) return false;
+    // --------- Checks / mates ----------
+    public boolean inCheck(boolean whiteSide) {
+        int k = board.kingSquare(whiteSide); // mantido pelo Board a cada set/remove
+        // Se o rei não existe no tabuleiro, trate como "em xeque" (estado inválido/terminal).
+        if (k < 0) return true;
+        return isSquareAttacked(k, whiteSide);
+    }
 
-        // Path between king and rook must be empty
-        int step = (rookCol > kingCol) ? 1 : -1;
-        for (int c = kingCol + step; c != rookCol; c += step) {
-            if (board.get(new Position(row, c)) != null) return false;
-        }
+    public boolean isCheckmate(boolean whiteSide) {
+        if (!inCheck(whiteSide)) return false;
+        // Only the side to move has legal moves; any legal move at all escapes the check
+        return whiteSide != whiteToMove || !hasLegalMoves();
+    }
 
-        // Squares king passes through (and destination) must not be attacked
-        Position p1 = new Position(row, passCol1);
-        Position p2 = new Position(row, passCol2);
-        if (isSquareAttacked(p1, whiteSide) || isSquareAttacked(p2, whiteSide)) return false;
+    private void checkGameEnd() {
+        if (!hasLegalMoves()) {
+            gameOver = true;
+            if (inCheck(whiteToMove)) {
+                history.setEndNote("Checkmate: " + (whiteToMove ? "White" : "Black") + " loses");
+            } else {
+                endInDraw(DrawReason.STALEMATE, "Draw: stalemate");
+            }
+        } else if (halfmoveClock >= 100) {
+            endInDraw(DrawReason.FIFTY_MOVES, "Draw: fifty-move rule");
+        } else if (repetitions() >= 2) {
+            endInDraw(DrawReason.THREEFOLD_REPETITION, "Draw: threefold repetition");
+        } else if (isInsufficientMaterial()) {
+            endInDraw(DrawReason.INSUFFICIENT_MATERIAL, "Draw: insufficient material");
+        }
+    }
 
-        return true;
+    private void endInDraw(DrawReason reason, String note) {
+        gameOver = true;
+        drawReason = reason;
+        history.setEndNote(note);
     }
 
-    private boolean leavesKingInCheck(Position from, Position to) {
-        Piece mover = board.get(from);
-        if (mover == null) return true;
+    /** Reason the game ended in a draw, or null (still playing, or decided by mate). */
+    public DrawReason drawReason() { return drawReason; }
 
-        Game g = snapshotShallow();
-        g.forceMoveNoChecks(from, to);
-        return g.inCheck(mover.isWhite());
-    }
+    // --------- Draw rules ----------
 
     /**
-     * True se `sq` está atacada por QUALQUER peça do lado oposto a `sideToProtect`.
-     * Implementa padrões de ataque corretos para peão/cavalo/rei/deslizantes.
+     * True if the current position occurred before since the last irreversible
+     * move (capture, pawn move). A single key comparison per earlier position
+     * with the same side to move: cheap enough for every search node, where one
+     * repetition is already scored as a draw.
      */
-    private boolean isSquareAttacked(Position sq, boolean sideToProtect) {
-        int r = sq.getRow(), c = sq.getColumn();
-
-        // 1) Ataques de peão (peão inimigo estaria uma linha "atrás" da sq na direção dele)
-        int dir = sideToProtect ? -1 : 1; // protegendo brancas => peões pretos atacam +1 (descendo)
-        int rp = r - dir;
-        if (rp >= 0 && rp < 8) {
-            if (c - 1 >= 0) {
-                Piece p = board.get(new Position(rp, c - 1));
-                if (p instanceof Pawn && p.isWhite() != sideToProtect) return true;
-            }
-            if (c + 1 < 8) {
-                Piece p = board.get(new Position(rp, c + 1));
-                if (p instanceof Pawn && p.isWhite() != sideToProtect) return true;
-            }
+    public boolean isRepetition() {
+        for (int i = keyCount - 2, stop = Math.max(0, keyCount - halfmoveClock); i >= stop; i -= 2) {
+            if (keyHistory[i] == zobristKey) return true;
         }
+        return false;
+    }
 
-        // 2) Ataques de cavalo
-        int[][] KJUMPS = {{-2,-1},{-2,1},{-1,-2},{-1,2},{1,-2},{1,2},{2,-1},{2,1}};
-        for (int[] d : KJUMPS) {
-            int rr = r + d[0], cc = c + d[1];
-            if (rr>=0 && rr<8 && cc>=0 && cc<8) {
-                Piece p = board.get(new Position(rr, cc));
-                if (p instanceof Knight && p.isWhite() != sideToProtect) return true;
-            }
+    /** How many times the current position occurred before (2 = threefold repetition). */
+    public int repetitions() {
+        int n = 0;
+        for (int i = keyCount - 2, stop = Math.max(0, keyCount - halfmoveClock); i >= stop; i -= 2) {
+            if (keyHistory[i] == zobristKey) n++;
         }
+        return n;
+    }
 
-        // 3) Ataques do rei (adjacentes)
-        for (int dr=-1; dr<=1; dr++) for (int dc=-1; dc<=1; dc++) {
-            if (dr==0 && dc==0) continue;
-            int rr = r+dr, cc = c+dc;
-            if (rr>=0 && rr<8 && cc>=0 && cc<8) {
-                Piece p = board.get(new Position(rr, cc));
-                if (p instanceof King && p.isWhite() != sideToProtect) return true;
-            }
+    /**
+     * Neither side can ever mate: no pawns, rooks or queens, and at most one
+     * minor piece on the board, or only bishops, all on squares of one colour.
+     */
+    public boolean isInsufficientMaterial() {
+        long heavy = 0, knights = 0, bishops = 0;
+        for (boolean white : new boolean[] {true, false}) {
+            heavy |= board.bitboard(Piece.PAWN, white) | board.bitboard(Piece.ROOK, white) | board.bitboard(Piece.QUEEN, white);
+            knights |= board.bitboard(Piece.KNIGHT, white);
+            bishops |= board.bitboard(Piece.BISHOP, white);
         }
+        if (heavy != 0) return false;
+        if (Long.bitCount(knights | bishops) <= 1) return true;
+        return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+    }
 
-        // 4) Deslizantes: torre/rainha (linhas/colunas)
-        int[][] ROOK_DIRS = {{-1,0},{1,0},{0,-1},{0,1}};
-        for (int[] d : ROOK_DIRS) {
-            int rr = r + d[0], cc = c + d[1];
-            while (rr>=0 && rr<8 && cc>=0 && cc<8) {
-                Piece p = board.get(new Position(rr, cc));
-                if (p != null) {
-                    if (p.isWhite() != sideToProtect && (p instanceof Rook || p instanceof Queen)) return true;
-                    break;
-                }
-                rr += d[0]; cc += d[1];
-            }
-        }
+    // Existence only: answered by the cache when it's there, else stops at the first legal move
+    private boolean hasLegalMoves() {
+        if (legalCacheValid) return !legalCache.isEmpty();
+        return generator.hasAny(scratch);
+    }
 
-        // 5) Deslizantes: bispo/rainha (diagonais)
-        int[][] BISHOP_DIRS = {{-1,-1},{-1,1},{1,-1},{1,1}};
-        for (int[] d : BISHOP_DIRS) {
-            int rr = r + d[0], cc = c + d[1];
-            while (rr>=0 && rr<8 && cc>=0 && cc<8) {
-                Piece p = board.get(new Position(rr, cc));
-                if (p != null) {
-                    if (p.isWhite() != sideToProtect && (p instanceof Bishop || p instanceof Queen)) return true;
-                    break;
-                }
-                rr += d[0]; cc += d[1];
-            }
+    private MoveList cachedLegalMoves() {
+        if (!legalCacheValid) {
+            generator.generate(legalCache);
+            legalCacheValid = true;
         }
-
-        return false;
+        return legalCache;
     }
 
-    // Executes a move on this.board without doing legality checks or specials.
-    // Used only inside snapshots where the move was already validated.
-    private void forceMoveNoChecks(Position from, Position to) {
+    // --------- Helpers: legality & attack maps ----------
+    // Targets of the legal moves from one square (a promotion's four moves give one target)
+    private List<Position> legalMovesFromWithSpecials(Position from) {
         Piece p = board.get(from);
-        if (p == null) return;
-
-        int dCol = Math.abs(to.getColumn() - from.getColumn());
-        boolean isPawn = p instanceof Pawn;
-        boolean isKing = p instanceof King;
-
-        // Detect en passant: pawn moves diagonally onto empty square that equals enPassantTarget
-        boolean diagonal = from.getColumn() != to.getColumn();
-        boolean toIsEmpty = board.get(to) == null;
-        boolean ep = isPawn && diagonal && toIsEmpty && enPassantTarget != null && to.equals(enPassantTarget);
-
-        // Detect castling: king moves two columns
-        boolean castle = isKing && dCol == 2;
-
-        // Base move
-        board.set(to, p);
-        board.set(from, null);
-        p.setMoved(true);
-
-        // Apply en passant capture
-        if (ep) {
-            int dir = p.isWhite() ? 1 : -1; // victim behind target
-            Position victim = new Position(to.getRow() + dir, to.getColumn());
-            board.set(victim, null);
-        }
+        if (p == null || p.isWhite() != whiteToMove) return List.of();
 
-        // Apply rook move for castling
-        if (castle) {
-            int row = to.getRow();
-            if (to.getColumn() == 6) {
-                // O-O: rook h -> f
-                Piece rook = board.get(new Position(row, 7));
-                board.set(new Position(row, 5), rook);
-                board.set(new Position(row, 7), null);
-                if (rook != null) rook.setMoved(true);
-            } else if (to.getColumn() == 2) {
-                // O-O-O: rook a -> d
-                Piece rook = board.get(new Position(row, 0));
-                board.set(new Position(row, 3), rook);
-                board.set(new Position(row, 0), null);
-                if (rook != null) rook.setMoved(true);
+        MoveList legal = cachedLegalMoves();
+        List<Position> moves = new ArrayList<>();
+        int sq = from.index();
+        int lastTo = -1;
+        for (int i = 0; i < legal.size(); i++) {
+            int m = legal.get(i);
+            if (PackedMove.from(m) == sq && PackedMove.to(m) != lastTo) {
+                lastTo = PackedMove.to(m);
+                moves.add(Position.of(lastTo));
             }
         }
-
-        // For snapshot simulation we don't keep EP availability
-        enPassantTarget = null;
+        return moves;
     }
 
-    // --------- King location ----------
-    private Position findKing(boolean whiteSide) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position pos = new Position(row, col);
-                Piece piece = board.get(pos);
-                if (piece instanceof King && piece.isWhite() == whiteSide) {
-                    return pos;
-                }
-            }
-        }
-        return null;
+    /**
+     * True se `sq` está atacada por QUALQUER peça do lado oposto a `sideToProtect`.
+     * Usa as tabelas de Attacks e os bitboards: só consultas, sem percorrer casas.
+     */
+    public boolean isSquareAttacked(Position sq, boolean sideToProtect) {
+        return isSquareAttacked(sq.index(), sideToProtect);
     }
 
-    // --------- Snapshot ----------
-    private Game snapshotShallow() {
-        Game g = new Game(true);
-        g.board = this.board.copy(); // IMPORTANT: Board.copy() must deep-copy pieces and fix their board refs.
-        g.whiteToMove = this.whiteToMove;
-        g.gameOver = this.gameOver;
-        g.enPassantTarget = (this.enPassantTarget == null)
-                ? null
-                : new Position(this.enPassantTarget.getRow(), this.enPassantTarget.getColumn());
-        g.history.addAll(this.history);
-        return g;
+    private boolean isSquareAttacked(int s, boolean sideToProtect) {
+        return Attacks.attackersTo(board, s, !sideToProtect, board.occupancy()) != 0;
     }
 
-    // --------- Notation helpers ----------
-    private void addHistory(String moveStr) {
-        history.add(moveStr);
+    // --------- Undo stack ----------
+    private Undo pushUndo() {
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoCount * 2);
+        }
+        Undo u = undoStack[undoCount];
+        if (u == null) undoStack[undoCount] = u = new Undo();
+        undoCount++;
+        return u;
     }
 
-    private String coord(Position p) {
-        char file = (char) ('a' + p.getColumn());
-        int rank = 8 - p.getRow();
-        return "" + file + rank;
+    // Everything needed to revert one makeMove (records are reused, never reallocated)
+    private static final class Undo {
+        Position from, to;
+        Piece moved;                  // piece that left `from` (the pawn, on promotion)
+        Piece captured;               // captured piece or null
+        Position capturedAt;          // differs from `to` on en passant
+        Piece rook;                   // castling rook or null
+        Position rookFrom, rookTo;
+        Position prevEnPassant;
+        int prevCastlingRights;
+        int prevHalfmoveClock;
+        long prevPawnKey;
     }
 
     // --------- Initial setup ----------
     private void setupPieces() {
         // White back rank (row 7)
-        board.placePiece(new Rook(board, true), new Position(7, 0));
-        board.placePiece(new Knight(board, true), new Position(7, 1));
-        board.placePiece(new Bishop(board, true), new Position(7, 2));
-        board.placePiece(new Queen(board, true), new Position(7, 3));
-        board.placePiece(new King(board, true), new Position(7, 4));
-        board.placePiece(new Bishop(board, true), new Position(7, 5));
-        board.placePiece(new Knight(board, true), new Position(7, 6));
-        board.placePiece(new Rook(board, true), new Position(7, 7));
+        board.placePiece(Piece.of(Piece.ROOK, true), Position.of(7, 0));
+        board.placePiece(Piece.of(Piece.KNIGHT, true), Position.of(7, 1));
+        board.placePiece(Piece.of(Piece.BISHOP, true), Position.of(7, 2));
+        board.placePiece(Piece.of(Piece.QUEEN, true), Position.of(7, 3));
+        board.placePiece(Piece.of(Piece.KING, true), Position.of(7, 4));
+        board.placePiece(Piece.of(Piece.BISHOP, true), Position.of(7, 5));
+        board.placePiece(Piece.of(Piece.KNIGHT, true), Position.of(7, 6));
+        board.placePiece(Piece.of(Piece.ROOK, true), Position.of(7, 7));
         // White pawns (row 6)
         for (int c = 0; c < 8; c++) {
-            board.placePiece(new Pawn(board, true), new Position(6, c));
+            board.placePiece(Piece.of(Piece.PAWN, true), Position.of(6, c));
         }
 
         // Black back rank (row 0)
-        board.placePiece(new Rook(board, false), new Position(0, 0));
-        board.placePiece(new Knight(board, false), new Position(0, 1));
-        board.placePiece(new Bishop(board, false), new Position(0, 2));
-        board.placePiece(new Queen(board, false), new Position(0, 3));
-        board.placePiece(new King(board, false), new Position(0, 4));
-        board.placePiece(new Bishop(board, false), new Position(0, 5));
-        board.placePiece(new Knight(board, false), new Position(0, 6));
-        board.placePiece(new Rook(board, false), new Position(0, 7));
+        board.placePiece(Piece.of(Piece.ROOK, false), Position.of(0, 0));
+        board.placePiece(Piece.of(Piece.KNIGHT, false), Position.of(0, 1));
+        board.placePiece(Piece.of(Piece.BISHOP, false), Position.of(0, 2));
+        board.placePiece(Piece.of(Piece.QUEEN, false), Position.of(0, 3));
+        board.placePiece(Piece.of(Piece.KING, false), Position.of(0, 4));
+        board.placePiece(Piece.of(Piece.BISHOP, false), Position.of(0, 5));
+        board.placePiece(Piece.of(Piece.KNIGHT, false), Position.of(0, 6));
+        board.placePiece(Piece.of(Piece.ROOK, false), Position.of(0, 7));
         // Black pawns (row 1)
         for (int c = 0; c < 8; c++) {
-            board.placePiece(new Pawn(board, false), new Position(1, c));
+            board.placePiece(Piece.of(Piece.PAWN, false), Position.of(1, c));
         }
     }
 }
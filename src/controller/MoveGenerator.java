@@ -0,0 +1,202 @@
+package controller;
+
+import model.board.Attacks;
+import model.board.BitBoard;
+import model.board.MoveList;
+import model.board.PackedMove;
+import model.board.Position;
+import model.board.Zobrist;
+import model.pieces.Piece;
+
+/**
+ * Legal move generator that never plays a move to test it.
+ *
+ * Once per position it finds the pieces giving check, the pieces pinned to
+ * their king (with the line each may still move along) and every square the
+ * opponent attacks with our king lifted off the board. The pieces'
+ * pseudo-legal moves are then kept or dropped by those masks alone:
+ * <ul>
+ *   <li>the king may only step onto unattacked squares;</li>
+ *   <li>in double check only the king may move;</li>
+ *   <li>in single check any other move must capture the checker or block it;</li>
+ *   <li>a pinned piece stays on the line through its king and the pinner.</li>
+ * </ul>
+ * En passant, which empties two squares of one rank at once, is verified
+ * against the real occupancy after the capture; castling checks the game's
+ * castling rights, the path and the squares the king crosses.
+ *
+ * One generator belongs to one {@link Game} and keeps per-position scratch
+ * state, so it is not shared between threads (each search thread has its own
+ * Game copy).
+ */
+final class MoveGenerator {
+
+    private final Game game;
+
+    // Per-position state
+    private long pinned;
+    private final long[] pinRay = new long[64]; // for each pinned square: squares it may still move to
+
+    MoveGenerator(Game game) {
+        this.game = game;
+    }
+
+    /** Fills {@code out} (cleared first) with the legal moves of the side to move. */
+    void generate(MoveList out) {
+        generate(out, false);
+    }
+
+    /**
+     * True if the side to move has at least one legal move. Uses {@code buffer}
+     * as scratch and stops filtering at the first legal move it finds.
+     */
+    boolean hasAny(MoveList buffer) {
+        generate(buffer, true);
+        return !buffer.isEmpty();
+    }
+
+    private void generate(MoveList out, boolean firstOnly) {
+        BitBoard b = game.board();
+        boolean us = game.whiteToMove();
+        int king = b.kingSquare(us);
+        b.generateMoves(us, out);
+        if (king < 0) {
+            // no king (invalid position): treated as permanently in check, so nothing is legal
+            out.clear();
+            return;
+        }
+
+        long occ = b.occupancy();
+        long checkers = attackersTo(king, !us, occ);
+        long attacked = attackedBy(!us, occ & ~(1L << king));
+        findPins(king, us);
+
+        int checks = Long.bitCount(checkers);
+        long checkMask = checks == 0 ? -1L
+                : checks == 1 ? checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers))
+                : 0L;
+        long enemyKing = b.bitboard(Piece.KING, !us);
+
+        int kept = 0;
+        for (int i = 0; i < out.size(); i++) {
+            int m = out.get(i);
+            int from = PackedMove.from(m);
+            long to = 1L << PackedMove.to(m);
+            boolean legal;
+            if (from == king) {
+                legal = (attacked & to) == 0;
+            } else {
+                legal = (checkMask & to) != 0
+                        && ((pinned & (1L << from)) == 0 || (pinRay[from] & to) != 0);
+            }
+            if (legal && (to & enemyKing) == 0) {
+                out.set(kept++, m);
+                if (firstOnly) break;
+            }
+        }
+        out.truncate(kept);
+        if (firstOnly && kept > 0) return;
+
+        addEnPassant(out, king, us);
+        if (checks == 0) addCastling(out, king, us, attacked);
+    }
+
+    // ---------- Checks, pins, attacks ----------
+
+    /** Pieces of colour {@code byWhite} attacking {@code sq}, counting only pieces still in {@code occ}. */
+    private long attackersTo(int sq, boolean byWhite, long occ) {
+        return Attacks.attackersTo(game.board(), sq, byWhite, occ);
+    }
+
+    /** Every square attacked by colour {@code byWhite} with the given occupancy. */
+    private long attackedBy(boolean byWhite, long occ) {
+        BitBoard b = game.board();
+        long attacked = 0;
+        for (long bb = b.occupancy(byWhite); bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            attacked |= switch (b.pieceAt(sq).type()) {
+                case Piece.PAWN -> Attacks.pawn(byWhite, sq);
+                case Piece.KNIGHT -> Attacks.knight(sq);
+                case Piece.KING -> Attacks.king(sq);
+                case Piece.BISHOP -> Attacks.bishop(sq, occ);
+                case Piece.ROOK -> Attacks.rook(sq, occ);
+                default -> Attacks.queen(sq, occ);
+            };
+        }
+        return attacked;
+    }
+
+    // A piece of ours is pinned when it is the only piece between our king and an
+    // enemy slider that would attack the king along that line on an empty board
+    private void findPins(int king, boolean us) {
+        BitBoard b = game.board();
+        long queens = b.bitboard(Piece.QUEEN, !us);
+        long snipers = (Attacks.rook(king, 0L) & (b.bitboard(Piece.ROOK, !us) | queens))
+                | (Attacks.bishop(king, 0L) & (b.bitboard(Piece.BISHOP, !us) | queens));
+        long occ = b.occupancy();
+        long own = b.occupancy(us);
+        pinned = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            long between = Attacks.between(king, sniper);
+            long blockers = between & occ;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+                pinRay[Long.numberOfTrailingZeros(blockers)] = between | (1L << sniper);
+            }
+        }
+    }
+
+    // ---------- Special moves ----------
+
+    private void addEnPassant(MoveList out, int king, boolean us) {
+        Position target = game.enPassantTarget();
+        if (target == null) return;
+        BitBoard b = game.board();
+        int to = target.index();
+        int victim = to + (us ? 8 : -8); // the pawn that just double-pushed, behind the target
+        Piece v = b.pieceAt(victim);
+        if (v == null || v.type() != Piece.PAWN || v.isWhite() == us) return;
+
+        int col = to & 7;
+        for (int dc = -1; dc <= 1; dc += 2) {
+            if (col + dc < 0 || col + dc > 7) continue;
+            int from = victim + dc;
+            Piece p = b.pieceAt(from);
+            if (p == null || p.type() != Piece.PAWN || p.isWhite() != us) continue;
+
+            // Both pawns leave the rank at once: test the king on the position after the capture
+            long occ = (b.occupancy() & ~(1L << from) & ~(1L << victim)) | (1L << to);
+            if (attackersTo(king, !us, occ) == 0) {
+                out.add(PackedMove.encode(from, to, Piece.PAWN, Piece.PAWN, PackedMove.FLAG_EN_PASSANT, -1));
+            }
+        }
+    }
+
+    private void addCastling(MoveList out, int king, boolean us, long attacked) {
+        int rights = game.castlingRights();
+        int row = us ? 7 : 0;
+        if (king != row * 8 + 4) return;
+        long occ = game.board().occupancy();
+        int kingSide = us ? Zobrist.CASTLE_WHITE_KING : Zobrist.CASTLE_BLACK_KING;
+        int queenSide = us ? Zobrist.CASTLE_WHITE_QUEEN : Zobrist.CASTLE_BLACK_QUEEN;
+        // king side: f and g empty and safe; queen side: b, c, d empty, c and d safe
+        if ((rights & kingSide) != 0 && ownRook(row * 8 + 7, us) && (occ & (bit(row, 5) | bit(row, 6))) == 0
+                && (attacked & (bit(row, 5) | bit(row, 6))) == 0) {
+            out.add(PackedMove.encode(king, row * 8 + 6, Piece.KING, -1, PackedMove.FLAG_CASTLE, -1));
+        }
+        if ((rights & queenSide) != 0 && ownRook(row * 8, us) && (occ & (bit(row, 1) | bit(row, 2) | bit(row, 3))) == 0
+                && (attacked & (bit(row, 2) | bit(row, 3))) == 0) {
+            out.add(PackedMove.encode(king, row * 8 + 2, Piece.KING, -1, PackedMove.FLAG_CASTLE, -1));
+        }
+    }
+
+    // The rights mask already tracks king and rook moves; this only guards against a hand-edited board
+    private boolean ownRook(int sq, boolean us) {
+        return game.board().pieceAt(sq) == Piece.of(Piece.ROOK, us);
+    }
+
+    private static long bit(int r, int c) {
+        return r >= 0 && r < 8 && c >= 0 && c < 8 ? 1L << (r * 8 + c) : 0L;
+    }
+}
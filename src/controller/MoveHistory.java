@@ -0,0 +1,91 @@
+package controller;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import model.board.PackedMove;
+
+/**
+ * Moves played through {@link Game#move}, stored as {@link PackedMove} codes
+ * in fixed-size chunks: appending never copies what is already stored, so the
+ * cost of a move is the same at ply 200 as at ply 2.
+ *
+ * The notation the GUI shows ("e2-e4", "O-O", "e5xd6 e.p.", "e7-e8=Q+", ...)
+ * is only built when {@link #asStrings()} is read, one entry at a time.
+ * Game copies and the search never see this store.
+ */
+final class MoveHistory {
+
+    static final int NO_MARK = 0, CHECK = 1, MATE = 2;
+
+    private static final int CHUNK_BITS = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    // Bits 0-22 hold the packed move; the check/mate mark goes above them
+    private static final int MARK_SHIFT = 24;
+
+    private int[][] chunks = new int[4][];
+    private int size;
+    private String endNote; // e.g. "Draw: stalemate", shown after the last move
+
+    void add(int move, int mark) {
+        int chunk = size >>> CHUNK_BITS;
+        if (chunk == chunks.length) chunks = Arrays.copyOf(chunks, chunk * 2); // copies chunk references only
+        if (chunks[chunk] == null) chunks[chunk] = new int[CHUNK_SIZE];
+        chunks[chunk][size & (CHUNK_SIZE - 1)] = move | (mark << MARK_SHIFT);
+        size++;
+    }
+
+    void setEndNote(String note) { this.endNote = note; }
+
+    void clear() {
+        size = 0;
+        endNote = null;
+    }
+
+    int size() { return size; }
+
+    /** Packed move of ply {@code i}. */
+    int move(int i) { return entry(i) & ((1 << MARK_SHIFT) - 1); }
+
+    int mark(int i) { return entry(i) >>> MARK_SHIFT; }
+
+    /** Read-only view with one notation string per move (plus the end note, if any), built on access. */
+    List<String> asStrings() {
+        return new AbstractList<>() {
+            @Override
+            public String get(int i) {
+                if (i == size && endNote != null) return endNote;
+                if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+                return notation(move(i), mark(i));
+            }
+
+            @Override
+            public int size() {
+                return size + (endNote != null ? 1 : 0);
+            }
+        };
+    }
+
+    private int entry(int i) {
+        return chunks[i >>> CHUNK_BITS][i & (CHUNK_SIZE - 1)];
+    }
+
+    private static String notation(int move, int mark) {
+        int from = PackedMove.from(move), to = PackedMove.to(move);
+        String s;
+        if (PackedMove.isCastle(move)) {
+            s = (to & 7) == 6 ? "O-O" : "O-O-O";
+        } else if (PackedMove.isEnPassant(move)) {
+            s = coord(from) + "x" + coord(to) + " e.p.";
+        } else {
+            s = coord(from) + (PackedMove.isCapture(move) ? "x" : "-") + coord(to);
+            Character promo = PackedMove.promotionChar(move);
+            if (promo != null) s += "=" + promo;
+        }
+        return mark == MATE ? s + "#" : mark == CHECK ? s + "+" : s;
+    }
+
+    private static String coord(int sq) {
+        return "" + (char) ('a' + (sq & 7)) + (8 - (sq >>> 3));
+    }
+}
@@ -0,0 +1,246 @@
+package controller;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import model.board.MoveList;
+import model.board.PackedMove;
+
+/**
+ * Perft: counts the leaf nodes of the legal move tree to a fixed depth.
+ *
+ * Moves come from {@link Game#legalMoves(MoveList)} and are played with
+ * {@link Game#makeMove}/{@link Game#unmakeMove} (the same board mutation that
+ * {@link Game#move} performs), so any change to move generation or to the
+ * make/unmake path is checked for correctness and timed in one run.
+ *
+ * Usage:
+ *   java controller.Perft suite [maxNodes]      runs the reference suite
+ *   java controller.Perft divide depth [fen]    per-move node counts
+ *   java controller.Perft depth [fen]           plain node count
+ *
+ * Add -Dchess.verifyZobrist=true to also check the incremental position key
+ * against a full recomputation on every make/unmake.
+ */
+public final class Perft {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /** One reference position with its expected node count at a given depth. */
+    public record Case(String name, String fen, int depth, long nodes) { }
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POS3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String POS4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String POS4_MIRRORED = "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1";
+    private static final String POS5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+    private static final String POS6 = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+    private static final String PROMOTION = "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1";
+
+    /** FENs {@link Game#loadFen} must reject with IllegalArgumentException (checked by the suite). */
+    public static final List<String> MALFORMED_FENS = List.of(
+            "4k3/8/8/8/8/8/8/4K3 w - e1 0 1",    // en passant target off rank 6
+            "4k3/8/8/8/8/8/8/4K3 w - e3 0 1",    // rank 3 is Black's target, but White is to move
+            "4k3/8/8/8/8/8/8/4K3 b - e6 0 1",    // and rank 6 White's
+            "4k3/8/8/8/8/8/8/4K3 w - i6 0 1",    // off the board
+            "4k3/8/8/8/8/8/8/4K3 w - e 0 1",
+            "4k3/8/8/8/8/8/8 w - - 0 1",         // seven ranks
+            "4k3/8/8/8/8/8/8/4K3 x - - 0 1");    // side to move
+
+    /** Well-known reference positions (chessprogramming.org perft results and the en-passant/castling stress set). */
+    public static final List<Case> SUITE = List.of(
+            new Case("start", START_FEN, 1, 20),
+            new Case("start", START_FEN, 2, 400),
+            new Case("start", START_FEN, 3, 8_902),
+            new Case("start", START_FEN, 4, 197_281),
+            new Case("start", START_FEN, 5, 4_865_609),
+            new Case("kiwipete", KIWIPETE, 1, 48),
+            new Case("kiwipete", KIWIPETE, 2, 2_039),
+            new Case("kiwipete", KIWIPETE, 3, 97_862),
+            new Case("kiwipete", KIWIPETE, 4, 4_085_603),
+            new Case("position 3", POS3, 1, 14),
+            new Case("position 3", POS3, 2, 191),
+            new Case("position 3", POS3, 3, 2_812),
+            new Case("position 3", POS3, 4, 43_238),
+            new Case("position 3", POS3, 5, 674_624),
+            new Case("position 3", POS3, 6, 11_030_083),
+            new Case("position 4", POS4, 1, 6),
+            new Case("position 4", POS4, 2, 264),
+            new Case("position 4", POS4, 3, 9_467),
+            new Case("position 4", POS4, 4, 422_333),
+            new Case("position 4 mirrored", POS4_MIRRORED, 3, 9_467),
+            new Case("position 4 mirrored", POS4_MIRRORED, 4, 422_333),
+            new Case("position 5", POS5, 1, 44),
+            new Case("position 5", POS5, 2, 1_486),
+            new Case("position 5", POS5, 3, 62_379),
+            new Case("position 5", POS5, 4, 2_103_487),
+            new Case("position 6", POS6, 1, 46),
+            new Case("position 6", POS6, 2, 2_079),
+            new Case("position 6", POS6, 3, 89_890),
+            new Case("position 6", POS6, 4, 3_894_594),
+            new Case("promotions", PROMOTION, 1, 24),
+            new Case("promotions", PROMOTION, 2, 496),
+            new Case("promotions", PROMOTION, 3, 9_483),
+            new Case("promotions", PROMOTION, 4, 182_838),
+            new Case("promotions", PROMOTION, 5, 3_605_103),
+            new Case("illegal ep move #1", "3k4/3p4/8/K1P4r/8/8/8/8 b - - 0 1", 6, 1_134_888),
+            new Case("illegal ep move #2", "8/8/4k3/8/2p5/8/B2P2K1/8 w - - 0 1", 6, 1_015_133),
+            new Case("ep capture checks opponent", "8/8/1k6/2b5/2pP4/8/5K2/8 b - d3 0 1", 6, 1_440_467),
+            new Case("short castling gives check", "5k2/8/8/8/8/8/8/4K2R w K - 0 1", 6, 661_072),
+            new Case("long castling gives check", "3k4/8/8/8/8/8/8/R3K3 w Q - 0 1", 6, 803_711),
+            new Case("castle rights", "r3k2r/1b4bq/8/8/8/8/7B/R3K2R w KQkq - 0 1", 4, 1_274_206),
+            new Case("castling prevented", "r3k2r/8/3Q4/8/8/5q2/8/R3K2R b KQkq - 0 1", 4, 1_720_476),
+            new Case("promote out of check", "2K2r2/4P3/8/8/8/8/8/3k4 w - - 0 1", 6, 3_821_001),
+            new Case("discovered check", "8/8/1P2K3/8/2n5/1q6/8/5k2 b - - 0 1", 5, 1_004_658),
+            new Case("promote to give check", "4k3/1P6/8/8/8/8/K7/8 w - - 0 1", 6, 217_342),
+            new Case("underpromote to check", "8/P1k5/K7/8/8/8/8/8 w - - 0 1", 6, 92_683),
+            new Case("self stalemate", "K1k5/8/P7/8/8/8/8/8 w - - 0 1", 6, 2_217),
+            new Case("stalemate & checkmate #1", "8/k1P5/8/1K6/8/8/8/8 w - - 0 1", 7, 567_584),
+            new Case("stalemate & checkmate #2", "8/8/2k5/5q2/5n2/8/5K2/8 b - - 0 1", 4, 23_527)
+    );
+
+    private Perft() { }
+
+    // --------- Counting ----------
+
+    /** Number of leaf nodes of the legal move tree of {@code game} at {@code depth}. */
+    public static long perft(Game game, int depth) {
+        return perft(game, depth, moveLists(depth));
+    }
+
+    /** Node count below each root move, keyed in long algebraic form (e2e4, e7e8q). */
+    public static Map<String, Long> divide(Game game, int depth) {
+        Map<String, Long> out = new LinkedHashMap<>();
+        if (depth <= 0) return out;
+        MoveList[] lists = moveLists(depth);
+        MoveList moves = lists[depth];
+        game.legalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int m = moves.get(i);
+            game.makeMove(m);
+            out.put(PackedMove.toUci(m), perft(game, depth - 1, lists));
+            game.unmakeMove();
+        }
+        return out;
+    }
+
+    private static long perft(Game game, int depth, MoveList[] lists) {
+        if (depth <= 0) return 1;
+        MoveList moves = lists[depth];
+        game.legalMoves(moves);
+        // bulk counting: leaves need not be played
+        if (depth == 1) return moves.size();
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += perft(game, depth - 1, lists);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    // One reusable move buffer per remaining depth
+    private static MoveList[] moveLists(int depth) {
+        MoveList[] lists = new MoveList[Math.max(depth, 0) + 1];
+        for (int i = 0; i < lists.length; i++) lists[i] = new MoveList();
+        return lists;
+    }
+
+    // --------- Reporting ----------
+
+    /** Prints the divide table followed by the total and nodes per second. */
+    public static long printDivide(Game game, int depth, PrintStream out) {
+        long start = System.nanoTime();
+        Map<String, Long> div = divide(game, depth);
+        long elapsed = System.nanoTime() - start;
+        long total = 0;
+        for (Map.Entry<String, Long> e : div.entrySet()) {
+            out.println(e.getKey() + ": " + e.getValue());
+            total += e.getValue();
+        }
+        out.println();
+        out.println("Moves: " + div.size());
+        out.println("Nodes: " + total);
+        out.println(timing(total, elapsed));
+        return total;
+    }
+
+    /**
+     * Runs every suite entry whose expected node count is at most {@code maxNodes},
+     * then checks that every {@link #MALFORMED_FENS} entry is rejected.
+     *
+     * @return true if every executed case matched its expected count
+     */
+    public static boolean runSuite(long maxNodes, PrintStream out) {
+        Game game = new Game();
+        int passed = 0, failed = 0;
+        long totalNodes = 0, totalNanos = 0;
+        for (Case c : SUITE) {
+            if (c.nodes() > maxNodes) continue;
+            game.loadFen(c.fen());
+            long start = System.nanoTime();
+            long nodes = perft(game, c.depth());
+            long elapsed = System.nanoTime() - start;
+            totalNodes += nodes;
+            totalNanos += elapsed;
+
+            boolean ok = nodes == c.nodes();
+            if (ok) passed++; else failed++;
+            out.printf("%-4s %-28s depth %d  %,12d nodes%s  %s%n",
+                    ok ? "OK" : "FAIL", c.name(), c.depth(), nodes,
+                    ok ? "" : " (expected " + String.format("%,d", c.nodes()) + ")",
+                    timing(nodes, elapsed));
+        }
+        for (String fen : MALFORMED_FENS) {
+            boolean ok;
+            try {
+                game.loadFen(fen);
+                ok = false;
+            } catch (IllegalArgumentException e) {
+                ok = true;
+            }
+            if (ok) passed++; else failed++;
+            out.printf("%-4s %-28s %s%n", ok ? "OK" : "FAIL", "rejects malformed FEN", fen);
+        }
+        out.printf("%d passed, %d failed. Total: %s%n", passed, failed, timing(totalNodes, totalNanos));
+        return failed == 0;
+    }
+
+    private static String timing(long nodes, long nanos) {
+        double secs = nanos / 1e9;
+        long nps = secs > 0 ? (long) (nodes / secs) : 0;
+        return String.format("%.3f s, %,d nps", secs, nps);
+    }
+
+    // --------- Command line ----------
+
+    public static void main(String[] args) {
+        if (args.length == 0 || args[0].equals("suite")) {
+            long maxNodes = args.length > 1 ? Long.parseLong(args[1]) : 5_000_000L;
+            boolean ok = runSuite(maxNodes, System.out);
+            if (!ok) System.exit(1);
+            return;
+        }
+
+        boolean divide = args[0].equals("divide");
+        int argi = divide ? 1 : 0;
+        int depth = Integer.parseInt(args[argi]);
+        String fen = args.length > argi + 1
+                ? String.join(" ", Arrays.copyOfRange(args, argi + 1, args.length))
+                : START_FEN;
+
+        Game game = new Game();
+        game.loadFen(fen);
+        if (divide) {
+            printDivide(game, depth, System.out);
+        } else {
+            long start = System.nanoTime();
+            long nodes = perft(game, depth);
+            System.out.println("Nodes: " + nodes);
+            System.out.println(timing(nodes, System.nanoTime() - start));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package engine;
+
+import controller.Game;
+import model.board.BitBoard;
+import model.pieces.Piece;
+
+/**
+ * Static evaluation in centipawns from the point of view of the side to move:
+ * material and piece-square bonuses ({@link PieceSquareTables}), blended
+ * between middlegame and endgame values by the material left on the board.
+ *
+ * This computes everything from the board; the search keeps the same terms
+ * up to date move by move in an {@link IncrementalEvaluation}, which must
+ * always agree with it.
+ */
+public final class Evaluation {
+
+    // Indexed by Piece.PAWN..Piece.KING (the king is never traded, so it has no material value).
+    // Plain values for move ordering; the evaluation itself uses the tapered tables.
+    static final int[] PIECE_VALUES = {100, 300, 300, 500, 900, 0};
+
+    private Evaluation() { }
+
+    public static int evaluate(Game game) {
+        BitBoard b = game.board();
+        int mg = 0, eg = 0, phase = 0;
+        for (long occ = b.occupancy(); occ != 0; occ &= occ - 1) {
+            int sq = Long.numberOfTrailingZeros(occ);
+            Piece p = b.pieceAt(sq);
+            int i = PieceSquareTables.index(p);
+            mg += PieceSquareTables.MG[i][sq];
+            eg += PieceSquareTables.EG[i][sq];
+            phase += PieceSquareTables.PHASE_WEIGHT[p.type()];
+        }
+        int score = PieceSquareTables.taper(mg, eg, phase);
+        return game.whiteToMove() ? score : -score;
+    }
+
+    /** Material value of a piece type (Piece.PAWN..Piece.KING). */
+    public static int pieceValue(int type) {
+        return PIECE_VALUES[type];
+    }
+}
@@ -0,0 +1,28 @@
+package engine;
+
+import controller.Game;
+
+/**
+ * Static evaluation as seen by {@link Search}. Implementations can be swapped
+ * to compare playing strength against speed: {@link PstEvaluator} is
+ * material and piece-square tables only, {@link LayeredEvaluator} (the
+ * default) adds mobility, king safety and pawn structure when they can matter.
+ *
+ * Each search thread uses its own instance, so implementations may keep
+ * per-search state without synchronisation.
+ */
+public interface Evaluator {
+
+    /** Called when a search starts playing moves on {@code game}. */
+    default void begin(Game game) { }
+
+    /** Called when that search is over. */
+    default void end() { }
+
+    /**
+     * Score of the current position in centipawns from the point of view of the
+     * side to move. A score outside (alpha, beta) only has to be on the correct
+     * side of the window, which lets lazy evaluators skip their expensive terms.
+     */
+    int evaluate(Game game, int alpha, int beta);
+}
@@ -0,0 +1,64 @@
+package engine;
+
+import model.board.Board;
+import model.board.BoardListener;
+import model.pieces.Piece;
+
+/**
+ * The {@link Evaluation} terms kept up to date while a search plays moves:
+ * attached to a board, it receives every piece placed or removed and adjusts
+ * the middlegame and endgame sums and the phase counter, so evaluating a
+ * position is a few adds and one blend instead of a scan of the board.
+ *
+ * One instance per board (and so per search thread).
+ */
+final class IncrementalEvaluation implements BoardListener {
+
+    private Board board;
+    private int mg;
+    private int eg;
+    private int phase;
+
+    /** Starts following {@code board}: one full scan now, then only incremental updates. */
+    void attach(Board board) {
+        detach();
+        this.board = board;
+        mg = eg = phase = 0;
+        for (boolean white : new boolean[] {true, false}) {
+            for (int i = 0; i < board.pieceCount(white); i++) {
+                int sq = board.pieceSquare(white, i);
+                pieceAdded(board.pieceAt(sq), sq);
+            }
+        }
+        board.setListener(this);
+    }
+
+    void detach() {
+        if (board != null) board.setListener(null);
+        board = null;
+    }
+
+    /** Score in centipawns from the point of view of the side to move. */
+    int evaluate(boolean whiteToMove) {
+        int score = PieceSquareTables.taper(mg, eg, phase);
+        return whiteToMove ? score : -score;
+    }
+
+    int phase() { return Math.min(phase, PieceSquareTables.MAX_PHASE); }
+
+    @Override
+    public void pieceAdded(Piece piece, int square) {
+        int i = PieceSquareTables.index(piece);
+        mg += PieceSquareTables.MG[i][square];
+        eg += PieceSquareTables.EG[i][square];
+        phase += PieceSquareTables.PHASE_WEIGHT[piece.type()];
+    }
+
+    @Override
+    public void pieceRemoved(Piece piece, int square) {
+        int i = PieceSquareTables.index(piece);
+        mg -= PieceSquareTables.MG[i][square];
+        eg -= PieceSquareTables.EG[i][square];
+        phase -= PieceSquareTables.PHASE_WEIGHT[piece.type()];
+    }
+}
@@ -0,0 +1,251 @@
+package engine;
+
+import controller.Game;
+import model.board.Attacks;
+import model.board.BitBoard;
+import model.pieces.Piece;
+
+/**
+ * Default evaluator, in tiers of increasing cost:
+ * <ol>
+ *   <li>material and piece-square tables ({@link PstEvaluator}, incremental);</li>
+ *   <li>pawn structure, mostly from the {@link PawnCache};</li>
+ *   <li>mobility and king safety, from the attack tables.</li>
+ * </ol>
+ * Each tier only runs when the score so far lands close enough to the
+ * alpha-beta window that the remaining terms could bring it inside:
+ * within {@link #lazyMargin()} before the pawn terms, and within the smaller
+ * bound on mobility and king safety before those. Otherwise the score so far
+ * is returned as is.
+ *
+ * Pawn structure (doubled, isolated, backward and passed pawns) depends on
+ * the pawns alone and is looked up in a {@link PawnCache} by the game's pawn
+ * key before being computed.
+ *
+ * Positional terms have middlegame and endgame weights blended by the same
+ * phase as the tables.
+ */
+public class LayeredEvaluator extends PstEvaluator {
+
+    /** Lazy-evaluation margin used by {@link #LayeredEvaluator()}. */
+    public static final int DEFAULT_LAZY_MARGIN = 200;
+
+    // Largest swing expected from mobility and king safety together: the margin of the last tier
+    private static final int ACTIVITY_MARGIN = 150;
+
+    private static final long FILE_A = 0x0101010101010101L;
+
+    // Mobility per reachable square beyond a typical count, by piece type (pawn and king unused)
+    private static final int[] MOBILITY_MG = {0, 4, 5, 2, 1, 0};
+    private static final int[] MOBILITY_EG = {0, 4, 5, 4, 2, 0};
+    private static final int[] MOBILITY_BASE = {0, 4, 6, 7, 13, 0};
+
+    // King safety: weight of each attacker type hitting the king zone, and the shield bonus
+    private static final int[] KING_ATTACK_WEIGHT = {0, 2, 2, 3, 5, 0};
+    private static final int KING_ATTACK_UNIT = 6;
+    private static final int MAX_ATTACK_UNITS = 12;
+    private static final int PAWN_SHIELD = 10;
+
+    // Pawn structure
+    private static final int DOUBLED_MG = 10, DOUBLED_EG = 20;
+    private static final int ISOLATED_MG = 10, ISOLATED_EG = 15;
+    private static final int BACKWARD_MG = 8, BACKWARD_EG = 10;
+    // Passed pawn bonus by ranks advanced from its starting rank (0..7)
+    private static final int[] PASSED_MG = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_EG = {0, 10, 20, 35, 55, 80, 110, 0};
+    // Extra endgame bonus per rank advanced for a passed pawn whose next square is empty
+    private static final int FREE_PASSER_EG = 5;
+
+    // [colour][square]: squares in front (own and adjacent files) that enemy pawns must not hold
+    private static final long[][] PASSED_SPAN = new long[2][64];
+    // [colour][square]: adjacent-file squares level with or behind a pawn, where a pawn could support it
+    private static final long[][] SUPPORT_SPAN = new long[2][64];
+    // [colour][square]: pawn-shield squares in front of a king (one and two ranks ahead)
+    private static final long[][] SHIELD = new long[2][64];
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            int r = sq >>> 3, c = sq & 7;
+            long files = adjacentFiles(c) | (FILE_A << c);
+            for (int rr = 0; rr < 8; rr++) {
+                long rank = 0xFFL << (rr * 8);
+                if (rr < r) PASSED_SPAN[0][sq] |= files & rank;  // white advances towards row 0
+                if (rr > r) PASSED_SPAN[1][sq] |= files & rank;
+                if (rr >= r) SUPPORT_SPAN[0][sq] |= adjacentFiles(c) & rank;
+                if (rr <= r) SUPPORT_SPAN[1][sq] |= adjacentFiles(c) & rank;
+                if (rr == r - 1 || rr == r - 2) SHIELD[0][sq] |= files & rank;
+                if (rr == r + 1 || rr == r + 2) SHIELD[1][sq] |= files & rank;
+            }
+        }
+    }
+
+    private final int lazyMargin;
+    private final PawnCache pawnCache;
+
+    // Middlegame / endgame sums of the second tier, White positive
+    private int mg;
+    private int eg;
+
+    public LayeredEvaluator() {
+        this(DEFAULT_LAZY_MARGIN);
+    }
+
+    public LayeredEvaluator(int lazyMargin) {
+        this(lazyMargin, new PawnCache());
+    }
+
+    public LayeredEvaluator(int lazyMargin, PawnCache pawnCache) {
+        this.lazyMargin = lazyMargin;
+        this.pawnCache = pawnCache;
+    }
+
+    public int lazyMargin() { return lazyMargin; }
+
+    public PawnCache pawnCache() { return pawnCache; }
+
+    @Override
+    public int evaluate(Game game, int alpha, int beta) {
+        int cheap = super.evaluate(game, alpha, beta);
+        if (outside(cheap, lazyMargin, alpha, beta)) return cheap;
+
+        BitBoard b = game.board();
+        int slot = pawnStructure(game, b);
+        mg = pawnCache.mg(slot);
+        eg = pawnCache.eg(slot);
+        freePassers(b, pawnCache.passed(slot), true);
+        freePassers(b, pawnCache.passed(slot), false);
+        int withPawns = cheap + positional(game);
+        if (outside(withPawns, ACTIVITY_MARGIN, alpha, beta)) return withPawns;
+
+        mobilityAndKingSafety(b, true);
+        mobilityAndKingSafety(b, false);
+        return cheap + positional(game);
+    }
+
+    // The mg/eg sums so far, blended and seen from the side to move
+    private int positional(Game game) {
+        int score = PieceSquareTables.taper(mg, eg, phase());
+        return game.whiteToMove() ? score : -score;
+    }
+
+    // Too far from the window for terms worth at most margin to bring the score inside it
+    private static boolean outside(int score, int margin, int alpha, int beta) {
+        return score + margin <= alpha || score - margin >= beta;
+    }
+
+    // ---------- Mobility and king safety ----------
+
+    private void mobilityAndKingSafety(BitBoard b, boolean white) {
+        int sign = white ? 1 : -1;
+        long occ = b.occupancy();
+        long own = b.occupancy(white);
+        // Squares covered by enemy pawns don't count as mobility
+        long unsafe = pawnAttacks(b.bitboard(Piece.PAWN, !white), !white);
+        int enemyKing = b.kingSquare(!white);
+        long kingZone = enemyKing < 0 ? 0 : Attacks.king(enemyKing) | (1L << enemyKing);
+
+        int attackUnits = 0;
+        for (int type = Piece.KNIGHT; type <= Piece.QUEEN; type++) {
+            for (long bb = b.bitboard(type, white); bb != 0; bb &= bb - 1) {
+                int sq = Long.numberOfTrailingZeros(bb);
+                long attacks = switch (type) {
+                    case Piece.KNIGHT -> Attacks.knight(sq);
+                    case Piece.BISHOP -> Attacks.bishop(sq, occ);
+                    case Piece.ROOK -> Attacks.rook(sq, occ);
+                    default -> Attacks.queen(sq, occ);
+                };
+                int moves = Long.bitCount(attacks & ~own & ~unsafe) - MOBILITY_BASE[type];
+                mg += sign * moves * MOBILITY_MG[type];
+                eg += sign * moves * MOBILITY_EG[type];
+                attackUnits += Long.bitCount(attacks & kingZone) * KING_ATTACK_WEIGHT[type];
+            }
+        }
+        // Pressure on the enemy king grows faster than the number of attackers; it matters in the middlegame
+        attackUnits = Math.min(attackUnits, MAX_ATTACK_UNITS);
+        mg += sign * attackUnits * attackUnits * KING_ATTACK_UNIT / 8;
+
+        int king = b.kingSquare(white);
+        if (king >= 0) {
+            mg += sign * PAWN_SHIELD * Long.bitCount(SHIELD[white ? 0 : 1][king] & b.bitboard(Piece.PAWN, white));
+        }
+    }
+
+    // ---------- Pawn structure ----------
+
+    // Cache slot holding the pawn terms of this position, computed on a miss
+    private int pawnStructure(Game game, BitBoard b) {
+        long key = game.pawnKey();
+        int slot = pawnCache.probe(key);
+        if (slot >= 0) return slot;
+        mg = eg = 0;
+        long passed = pawnStructure(b, true) | pawnStructure(b, false);
+        return pawnCache.store(key, mg, eg, passed);
+    }
+
+    // Adds one side's pawn terms to mg/eg and returns its passed pawns
+    private long pawnStructure(BitBoard b, boolean white) {
+        int sign = white ? 1 : -1;
+        int colour = white ? 0 : 1;
+        long pawns = b.bitboard(Piece.PAWN, white);
+        long enemyPawns = b.bitboard(Piece.PAWN, !white);
+        long enemyAttacks = pawnAttacks(enemyPawns, !white);
+        for (int c = 0; c < 8; c++) {
+            long onFile = pawns & (FILE_A << c);
+            if (onFile == 0) continue;
+            int count = Long.bitCount(onFile);
+            if (count > 1) {
+                mg -= sign * DOUBLED_MG * (count - 1);
+                eg -= sign * DOUBLED_EG * (count - 1);
+            }
+            if ((pawns & adjacentFiles(c)) == 0) {
+                mg -= sign * ISOLATED_MG * count;
+                eg -= sign * ISOLATED_EG * count;
+            }
+        }
+        long passed = 0;
+        for (long bb = pawns; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            if ((PASSED_SPAN[colour][sq] & enemyPawns) == 0) {
+                passed |= 1L << sq;
+                int advanced = advanced(sq, white);
+                mg += sign * PASSED_MG[advanced];
+                eg += sign * PASSED_EG[advanced];
+            }
+            // Backward: can't advance safely and no pawn on an adjacent file can come up to support it
+            int stop = white ? sq - 8 : sq + 8;
+            if (stop >= 0 && stop < 64 && (enemyAttacks & (1L << stop)) != 0
+                    && (pawns & adjacentFiles(sq & 7)) != 0 && (SUPPORT_SPAN[colour][sq] & pawns) == 0) {
+                mg -= sign * BACKWARD_MG;
+                eg -= sign * BACKWARD_EG;
+            }
+        }
+        return passed;
+    }
+
+    // Passed pawns (from the cache) whose next square is free: depends on all pieces, so not cached
+    private void freePassers(BitBoard b, long passed, boolean white) {
+        long occ = b.occupancy();
+        for (long bb = passed & b.bitboard(Piece.PAWN, white); bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            int stop = white ? sq - 8 : sq + 8;
+            if (stop >= 0 && stop < 64 && (occ & (1L << stop)) == 0) {
+                eg += (white ? 1 : -1) * FREE_PASSER_EG * advanced(sq, white);
+            }
+        }
+    }
+
+    // Ranks a pawn has advanced from its starting rank (0..6)
+    private static int advanced(int sq, boolean white) {
+        return Math.max(0, white ? 6 - (sq >>> 3) : (sq >>> 3) - 1);
+    }
+
+    private static long pawnAttacks(long pawns, boolean white) {
+        long attacks = 0;
+        for (long bb = pawns; bb != 0; bb &= bb - 1) attacks |= Attacks.pawn(white, Long.numberOfTrailingZeros(bb));
+        return attacks;
+    }
+
+    private static long adjacentFiles(int c) {
+        return (c > 0 ? FILE_A << (c - 1) : 0) | (c < 7 ? FILE_A << (c + 1) : 0);
+    }
+}
@@ -0,0 +1,126 @@
+package engine;
+
+import controller.Game;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Lazy SMP: N searches of the same position run at once, each on its own copy
+ * of the game, and share one {@link TranspositionTable}. The helpers fill the
+ * table with results the main search then finds; every other helper searches
+ * one ply deeper to diversify the work.
+ *
+ * The calling thread runs the main search (and owns the time budget); helpers
+ * run on a fixed daemon pool and stop when the main search finishes.
+ *
+ * The final move is chosen by a fixed rule: the result with the greatest
+ * completed depth wins, and ties go to the lowest thread index (0 = main).
+ *
+ * Every thread gets a fresh {@link Evaluator} from the given factory.
+ */
+public final class LazySmp {
+
+    private final int threads;
+    private final TranspositionTable tt;
+    private final ExecutorService helpers;
+    private final Supplier<Evaluator> evaluators;
+    private long lastNodes;
+    private long lastTtHits;
+    private long lastTtMisses;
+    private long lastTtCollisions;
+
+    public LazySmp(int threads, TranspositionTable tt) {
+        this(threads, tt, LayeredEvaluator::new);
+    }
+
+    public LazySmp(int threads, TranspositionTable tt, Supplier<Evaluator> evaluators) {
+        this.threads = Math.max(1, threads);
+        this.tt = tt;
+        this.evaluators = evaluators;
+        this.helpers = this.threads == 1 ? null : Executors.newFixedThreadPool(this.threads - 1, r -> {
+            Thread t = new Thread(r, "lazy-smp-helper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Thread count from -Dchess.threads, defaulting to the number of available processors. */
+    public static int defaultThreads() {
+        return Integer.getInteger("chess.threads", Runtime.getRuntime().availableProcessors());
+    }
+
+    public int threads() { return threads; }
+
+    public TranspositionTable table() { return tt; }
+
+    /** Nodes searched by all threads during the last {@link #search}. */
+    public long lastNodes() { return lastNodes; }
+
+    /** Table hits, misses and collisions of all threads during the last {@link #search}. */
+    public long lastTtHits() { return lastTtHits; }
+
+    public long lastTtMisses() { return lastTtMisses; }
+
+    public long lastTtCollisions() { return lastTtCollisions; }
+
+    /** Searches {@code game} (left unchanged) with all threads until depth or time runs out. */
+    public SearchResult search(Game game, int maxDepth, TimeManager time) {
+        tt.newSearch();
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Search> searches = new ArrayList<>(threads);
+        List<Future<SearchResult>> running = new ArrayList<>(threads - 1);
+        for (int id = 1; id < threads; id++) {
+            Search helper = new Search(game.copy(), tt, evaluators.get());
+            helper.helperOf(stop, id & 1);
+            searches.add(helper);
+            running.add(helpers.submit(() -> helper.search(maxDepth, TimeManager.infinite())));
+        }
+
+        Search main = new Search(game.copy(), tt, evaluators.get());
+        main.helperOf(stop, 0);
+        SearchResult best;
+        SearchResult[] helperResults = new SearchResult[running.size()];
+        try {
+            best = main.search(maxDepth, time);
+        } finally {
+            // Helpers have no time limit of their own: stop them even if the main search failed
+            stop.set(true);
+            for (int i = 0; i < running.size(); i++) helperResults[i] = join(running.get(i));
+        }
+
+        for (SearchResult r : helperResults) {
+            if (r != null && r.bestMove() != null && r.depth() > best.depth()) best = r;
+        }
+        searches.add(main);
+        lastNodes = lastTtHits = lastTtMisses = lastTtCollisions = 0;
+        for (Search s : searches) {
+            lastNodes += s.nodes();
+            lastTtHits += s.ttHits();
+            lastTtMisses += s.ttMisses();
+            lastTtCollisions += s.ttCollisions();
+        }
+        return best;
+    }
+
+    /** Stops the helper threads; the instance can't be used afterwards. */
+    public void shutdown() {
+        if (helpers != null) helpers.shutdownNow();
+    }
+
+    private static SearchResult join(Future<SearchResult> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package engine;
+
+import model.board.BitBoard;
+import model.board.MoveList;
+import model.board.PackedMove;
+import model.pieces.Piece;
+
+/**
+ * Hands out the moves of one node in the order most likely to cause an early
+ * cutoff, in stages:
+ * <ol>
+ *   <li>the hash move (or the previous iteration's best move at the root);</li>
+ *   <li>captures and queen promotions, most valuable victim first, then least valuable attacker;</li>
+ *   <li>the two killer moves of the ply (quiet moves that caused a cutoff at this ply elsewhere);</li>
+ *   <li>the remaining quiet moves, by history score;</li>
+ *   <li>captures that lose material according to {@link See}.</li>
+ * </ol>
+ * Each stage scores only the moves it covers, when it is reached, and picks
+ * them by selection inside the {@link MoveList} itself: a node that cuts off
+ * on the hash move or a capture never scores its quiet moves.
+ *
+ * In tactical mode ({@link #resetTactical}, for the quiescence search) only
+ * the second stage runs, and losing captures are dropped by the same SEE pass
+ * that sorts them out.
+ *
+ * One picker per ply, reused across nodes like the move lists.
+ */
+final class MovePicker {
+
+    private static final int HASH = 0, TACTICAL_INIT = 1, TACTICAL = 2, KILLER1 = 3, KILLER2 = 4,
+            QUIETS_INIT = 5, QUIETS = 6, DONE = 7;
+
+    // Below any history score: losing captures come after every quiet move
+    private static final int LOSING_CAPTURE = -1_000_000;
+
+    private final See see;
+
+    private MoveList moves;
+    private BitBoard board;
+    private int hashMove;
+    private int killer1;
+    private int killer2;
+    private int[] history;
+    private boolean tacticalOnly;
+    private int stage;
+    private int next;   // moves[0..next) have been handed out
+    private int end;    // end of the current stage's moves
+
+    MovePicker(See see) {
+        this.see = see;
+    }
+
+    /**
+     * Starts picking from {@code moves} (legal moves of the position on {@code board}).
+     * {@code history} is the side to move's table, indexed by {@link #historyIndex(int)}.
+     */
+    void reset(MoveList moves, BitBoard board, int hashMove, int killer1, int killer2, int[] history) {
+        this.moves = moves;
+        this.board = board;
+        this.hashMove = hashMove;
+        this.killer1 = killer1;
+        this.killer2 = killer2;
+        this.history = history;
+        this.tacticalOnly = false;
+        this.stage = HASH;
+        this.next = 0;
+    }
+
+    /** Starts picking only the captures and queen promotions of {@code moves} that don't lose material. */
+    void resetTactical(MoveList moves, BitBoard board) {
+        this.moves = moves;
+        this.board = board;
+        this.hashMove = PackedMove.NONE;
+        this.tacticalOnly = true;
+        this.stage = TACTICAL_INIT;
+        this.next = 0;
+    }
+
+    /** Next move to search, or {@link PackedMove#NONE} when all have been handed out. */
+    int next() {
+        while (true) {
+            switch (stage) {
+                case HASH -> {
+                    stage = TACTICAL_INIT;
+                    if (hashMove != PackedMove.NONE && bringForward(hashMove)) return moves.get(next++);
+                }
+                case TACTICAL_INIT -> {
+                    // Gather captures and queen promotions right after what was handed out;
+                    // losing captures stay behind with the quiet moves
+                    end = next;
+                    for (int i = next; i < moves.size(); i++) {
+                        int m = moves.get(i);
+                        if (isTactical(m) && !see.isLosing(board, m)) {
+                            moves.setScore(i, mvvLva(m));
+                            moves.swap(end++, i);
+                        }
+                    }
+                    stage = TACTICAL;
+                }
+                case TACTICAL -> {
+                    if (next < end) return moves.pickBest(next++, end);
+                    stage = tacticalOnly ? DONE : KILLER1;
+                }
+                case KILLER1 -> {
+                    stage = KILLER2;
+                    if (usableKiller(killer1) && bringForward(killer1)) return moves.get(next++);
+                }
+                case KILLER2 -> {
+                    stage = QUIETS_INIT;
+                    if (usableKiller(killer2) && bringForward(killer2)) return moves.get(next++);
+                }
+                case QUIETS_INIT -> {
+                    for (int i = next; i < moves.size(); i++) {
+                        int m = moves.get(i);
+                        moves.setScore(i, PackedMove.isCapture(m) ? LOSING_CAPTURE + mvvLva(m) : history[historyIndex(m)]);
+                    }
+                    stage = QUIETS;
+                }
+                case QUIETS -> {
+                    if (next < moves.size()) return moves.pickBest(next++, moves.size());
+                    stage = DONE;
+                }
+                default -> {
+                    return PackedMove.NONE;
+                }
+            }
+        }
+    }
+
+    /** Captures and queen promotions: searched before the quiet moves and not used as killers. */
+    static boolean isTactical(int move) {
+        return PackedMove.isCapture(move) || PackedMove.promotion(move) == Piece.QUEEN;
+    }
+
+    /** Butterfly index of a move in a side's history table (from and to squares). */
+    static int historyIndex(int move) {
+        return PackedMove.from(move) << 6 | PackedMove.to(move);
+    }
+
+    // Killers are quiet moves from sibling nodes: skip an empty slot and the hash move (already searched)
+    private boolean usableKiller(int killer) {
+        return killer != PackedMove.NONE && killer != hashMove;
+    }
+
+    // Moves a not yet handed out move to the front of the rest; false if it isn't there
+    private boolean bringForward(int move) {
+        for (int i = next; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                moves.swap(next, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int mvvLva(int move) {
+        int s = 0;
+        if (PackedMove.isCapture(move)) {
+            s += 10 * Evaluation.pieceValue(PackedMove.captured(move)) - Evaluation.pieceValue(PackedMove.piece(move)) / 10 + 1;
+        }
+        if (PackedMove.promotion(move) == Piece.QUEEN) s += 8000;
+        return s;
+    }
+}
@@ -0,0 +1,87 @@
+package engine;
+
+/**
+ * Small direct-mapped cache of pawn-structure results, keyed by
+ * {@link controller.Game#pawnKey()}. Pawns move rarely compared with other
+ * pieces, so most nodes of a search find their structure already evaluated.
+ *
+ * Each entry holds the middlegame and endgame scores (White positive) and the
+ * mask of passed pawns of both colours. A new entry simply overwrites the old
+ * one in its slot. Belongs to one evaluator (one thread): nothing is shared.
+ *
+ * An empty slot reads as key 0 with zero scores and no passed pawns, which is
+ * also the correct entry for a position without pawns (key 0).
+ */
+public final class PawnCache {
+
+    /** Entries used by {@link #PawnCache()} (about 200 KB). */
+    public static final int DEFAULT_ENTRIES = 1 << 13;
+
+    private final long[] keys;
+    private final int[] mg;
+    private final int[] eg;
+    private final long[] passed;
+    private final int mask;
+
+    private long hits;
+    private long misses;
+
+    public PawnCache() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    /** Cache with {@code entries} slots, rounded down to a power of two. */
+    public PawnCache(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        keys = new long[size];
+        mg = new int[size];
+        eg = new int[size];
+        passed = new long[size];
+        mask = size - 1;
+    }
+
+    /** Slot of {@code key} if it holds that key (counted as a hit), else -1 (a miss). */
+    int probe(long key) {
+        int slot = (int) key & mask;
+        if (keys[slot] == key) {
+            hits++;
+            return slot;
+        }
+        misses++;
+        return -1;
+    }
+
+    /** Stores a result and returns its slot. */
+    int store(long key, int mgScore, int egScore, long passedPawns) {
+        int slot = (int) key & mask;
+        keys[slot] = key;
+        mg[slot] = mgScore;
+        eg[slot] = egScore;
+        passed[slot] = passedPawns;
+        return slot;
+    }
+
+    int mg(int slot) { return mg[slot]; }
+
+    int eg(int slot) { return eg[slot]; }
+
+    long passed(int slot) { return passed[slot]; }
+
+    public int capacity() { return keys.length; }
+
+    // ---------- Statistics ----------
+
+    public long hits() { return hits; }
+
+    public long misses() { return misses; }
+
+    /** Fraction of probes that found their pawn structure, 0 if nothing was probed. */
+    public double hitRate() {
+        long probes = hits + misses;
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    public void resetStats() {
+        hits = misses = 0;
+    }
+}
@@ -0,0 +1,40 @@
+package engine;
+
+import controller.Game;
+
+/**
+ * Material and tapered piece-square tables, read from an
+ * {@link IncrementalEvaluation} that follows the board during the search:
+ * a few adds per move and no board scan per leaf.
+ */
+public class PstEvaluator implements Evaluator {
+
+    private final IncrementalEvaluation eval = new IncrementalEvaluation();
+    // When on, every call checks the incremental score against a full recomputation
+    private final boolean verify = Boolean.getBoolean("chess.verifyEval");
+
+    @Override
+    public void begin(Game game) {
+        eval.attach(game.board());
+    }
+
+    @Override
+    public void end() {
+        eval.detach();
+    }
+
+    @Override
+    public int evaluate(Game game, int alpha, int beta) {
+        int score = eval.evaluate(game.whiteToMove());
+        if (verify && score != Evaluation.evaluate(game)) {
+            throw new IllegalStateException("Incremental evaluation " + score
+                    + " differs from the full one " + Evaluation.evaluate(game));
+        }
+        return score;
+    }
+
+    /** Game phase of the followed board, 24 (all pieces) down to 0 (pawns and kings). */
+    protected int phase() {
+        return eval.phase();
+    }
+}
@@ -0,0 +1,352 @@
+package engine;
+
+import controller.Game;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import model.board.Move;
+import model.board.MoveList;
+import model.board.PackedMove;
+
+/**
+ * Iterative-deepening negamax alpha-beta search with principal-variation
+ * tracking, played on a {@link Game} through makeMove/unmakeMove and its
+ * legal move rules. Each iteration searches the previous best move first;
+ * when the {@link TimeManager} runs out mid-iteration, the result of the last
+ * completed iteration is returned.
+ *
+ * At depth 0 a quiescence search plays out captures and queen promotions until the
+ * position is quiet, so a leaf is never scored with a piece hanging. The side
+ * to move may stand pat on the static evaluation; captures that lose material
+ * by {@link See static exchange} or cannot lift the score near alpha (delta
+ * pruning) are skipped. In check, every evasion is searched instead.
+ *
+ * Positions are cached in a {@link TranspositionTable}, which can be shared
+ * with other Search instances running in parallel (see {@link LazySmp}).
+ *
+ * Moves are handled as {@link PackedMove} codes in one reusable {@link MoveList}
+ * per ply; only the returned line is decoded into {@link Move} objects. They
+ * are tried in the order of a {@link MovePicker}: hash move, captures, killer
+ * moves, then quiet moves by history score. Killers and history are kept per
+ * Search (per thread); history is halved at the start of each search so old
+ * cutoffs fade instead of being forgotten.
+ *
+ * A Search mutates the game it is given while it runs; search a
+ * {@link Game#copy()} if the original is in use elsewhere (e.g. by the GUI).
+ */
+public final class Search {
+
+    public static final int MATE = 30000;
+    public static final int INFINITY = 32000;
+    public static final int MAX_PLY = 64;
+
+    // Nodes between two clock checks
+    private static final int CHECK_INTERVAL = 1024;
+
+    // Delta pruning: a capture must be able to bring the score this close to alpha
+    private static final int DELTA_MARGIN = 200;
+
+    // History scores are halved when one passes this, keeping them well inside int range
+    private static final int HISTORY_MAX = 1 << 20;
+
+    // Table size for a Search created without a shared table
+    private static final int DEFAULT_TT_MEGABYTES = 4;
+
+    private final Game game;
+    private final TranspositionTable tt;
+    private long nodes;
+    // Table statistics of this search, kept here rather than on the shared table
+    private long ttHits;
+    private long ttMisses;
+    private long ttCollisions;
+
+    private final Evaluator evaluator;
+    private final See see = new See();
+
+    private TimeManager time = TimeManager.infinite();
+    private boolean stopped;
+    private AtomicBoolean stopSignal = new AtomicBoolean(); // raised by whoever ends a parallel search
+    private boolean parallel;                               // table aged by LazySmp, not by each thread
+    private int depthOffset;                                // helper threads search one ply deeper on odd ids
+    private int completedDepth;
+    private int rootFirst; // best move of the previous iteration, searched first
+
+    // Triangular PV table: pv[ply][ply..pvLength[ply]) is the best line found from ply
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    // One move buffer and picker per ply, reused across nodes
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY + 1];
+
+    // Two quiet moves per ply that last caused a cutoff there
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    // [side to move, 0 = White][from * 64 + to]: how often and how deep a quiet move caused a cutoff
+    private final int[][] history = new int[2][64 * 64];
+
+    public Search(Game game) {
+        this(game, TranspositionTable.ofMegabytes(DEFAULT_TT_MEGABYTES));
+    }
+
+    public Search(Game game, TranspositionTable tt) {
+        this(game, tt, new LayeredEvaluator());
+    }
+
+    /** Search with its own evaluator instance (not shared with other searches). */
+    public Search(Game game, TranspositionTable tt, Evaluator evaluator) {
+        this.game = game;
+        this.tt = tt;
+        this.evaluator = evaluator;
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+            pickers[i] = new MovePicker(see);
+        }
+    }
+
+    // Lazy SMP helper setup: shared stop signal and iteration depth offset
+    void helperOf(AtomicBoolean stopSignal, int depthOffset) {
+        this.stopSignal = stopSignal;
+        this.depthOffset = depthOffset;
+        this.parallel = true;
+    }
+
+    /** Maximum search depth for each AI difficulty level of the GUI (level 3 is bounded by time only). */
+    public static int depthForLevel(int level) {
+        return switch (level) {
+            case 1 -> 1;
+            case 2 -> 2;
+            default -> MAX_PLY;
+        };
+    }
+
+    /** Searches the side to move to a fixed depth; bestMove is null if there is no legal move. */
+    public SearchResult search(int depth) {
+        return search(depth, TimeManager.infinite());
+    }
+
+    /**
+     * Deepens one ply at a time up to {@code maxDepth} until the time budget says stop.
+     * At least depth 1 is always completed; bestMove is null if there is no legal move.
+     */
+    public SearchResult search(int maxDepth, TimeManager time) {
+        this.time = time;
+        time.start();
+        if (!parallel) tt.newSearch();
+        nodes = ttHits = ttMisses = ttCollisions = 0;
+        stopped = false;
+        completedDepth = 0;
+        rootFirst = PackedMove.NONE;
+        for (int[] k : killers) k[0] = k[1] = PackedMove.NONE;
+        ageHistory();
+        maxDepth = Math.max(1, Math.min(maxDepth, MAX_PLY));
+        evaluator.begin(game);
+        try {
+            return iterate(maxDepth);
+        } finally {
+            evaluator.end();
+        }
+    }
+
+    private SearchResult iterate(int maxDepth) {
+        SearchResult best = new SearchResult(null, 0, List.of(), 0, 0);
+        // Helpers start depthOffset plies deeper; the start is clamped so maxDepth is searched once
+        for (int depth = Math.min(1 + depthOffset, maxDepth); depth <= maxDepth; depth++) {
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (stopped) break;
+
+            List<Move> line = decodeLine(pv[0], pvLength[0]);
+            best = new SearchResult(line.isEmpty() ? null : line.get(0), score, line, depth, nodes);
+            completedDepth = depth;
+            rootFirst = pvLength[0] > 0 ? pv[0][0] : PackedMove.NONE;
+
+            // no legal move, a forced mate already found, or no time for another iteration
+            if (rootFirst == PackedMove.NONE || Math.abs(score) >= MATE - depth || !time.canStartIteration()) break;
+        }
+        return best;
+    }
+
+    public long nodes() { return nodes; }
+
+    /** Table probes of the last search that found their position. */
+    public long ttHits() { return ttHits; }
+
+    public long ttMisses() { return ttMisses; }
+
+    /** Table stores of the last search that evicted a different position. */
+    public long ttCollisions() { return ttCollisions; }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (depth == 0) return quiesce(alpha, beta, ply);
+        pvLength[ply] = ply;
+        if (countNode()) return 0;
+        // Draw by repetition (one repeat is enough inside the tree) or by the fifty-move
+        // rule, unless the move that reached the hundredth halfmove gave mate (as in Game)
+        if (ply > 0 && (game.isRepetition()
+                || (game.halfmoveClock() >= 100 && !game.isCheckmate(game.whiteToMove())))) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) return evaluator.evaluate(game, alpha, beta);
+
+        // Transposition table: cutoff on a deep enough entry, else use its move first
+        long key = game.zobristKey();
+        long entry = tt.probe(key);
+        int hashMove = PackedMove.NONE;
+        if (entry != 0) {
+            ttHits++;
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        } else {
+            ttMisses++;
+        }
+
+        MoveList moves = moveLists[ply];
+        game.legalMoves(moves);
+        if (moves.isEmpty()) {
+            // checkmate (prefer the quickest mate) or stalemate
+            return game.inCheck(game.whiteToMove()) ? -MATE + ply : 0;
+        }
+        int side = game.whiteToMove() ? 0 : 1;
+        MovePicker picker = pickers[ply];
+        int first = ply == 0 && rootFirst != PackedMove.NONE ? rootFirst : hashMove;
+        picker.reset(moves, game.board(), first, killers[ply][0], killers[ply][1], history[side]);
+
+        int alphaOrig = alpha;
+        int best = PackedMove.NONE;
+        for (int m = picker.next(); m != PackedMove.NONE; m = picker.next()) {
+            game.makeMove(m);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (stopped) return 0;
+
+            if (score > alpha) {
+                alpha = score;
+                best = m;
+                updatePv(ply, m);
+                if (alpha >= beta) {
+                    if (!MovePicker.isTactical(m)) rememberCutoff(m, side, depth, ply);
+                    break;
+                }
+            }
+        }
+
+        int bound = alpha >= beta ? TranspositionTable.BOUND_LOWER
+                : alpha > alphaOrig ? TranspositionTable.BOUND_EXACT
+                : TranspositionTable.BOUND_UPPER;
+        if (tt.store(key, depth, scoreToTable(alpha, ply), bound, best != PackedMove.NONE ? best : hashMove)) {
+            ttCollisions++;
+        }
+        return alpha;
+    }
+
+    // Captures and queen promotions only (every evasion when in check), until the position is quiet
+    private int quiesce(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (countNode()) return 0;
+        if (ply >= MAX_PLY) return evaluator.evaluate(game, alpha, beta);
+
+        boolean inCheck = game.inCheck(game.whiteToMove());
+        int standPat = 0;
+        if (!inCheck) {
+            // Not capturing is an option: the static score is a lower bound
+            standPat = evaluator.evaluate(game, alpha, beta);
+            if (standPat >= beta) return standPat;
+            if (standPat > alpha) alpha = standPat;
+        }
+
+        MoveList moves = moveLists[ply];
+        game.legalMoves(moves);
+        if (inCheck && moves.isEmpty()) return -MATE + ply;
+
+        MovePicker picker = pickers[ply];
+        if (inCheck) {
+            int side = game.whiteToMove() ? 0 : 1;
+            picker.reset(moves, game.board(), PackedMove.NONE, PackedMove.NONE, PackedMove.NONE, history[side]);
+        } else {
+            picker.resetTactical(moves, game.board()); // losing captures never come out
+        }
+        for (int m = picker.next(); m != PackedMove.NONE; m = picker.next()) {
+            if (!inCheck && PackedMove.promotion(m) < 0
+                    && standPat + See.value(PackedMove.captured(m)) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            game.makeMove(m);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (stopped) return 0;
+
+            if (score > alpha) {
+                alpha = score;
+                updatePv(ply, m);
+                if (alpha >= beta) break;
+            }
+        }
+        return alpha;
+    }
+
+    // Counts a node and polls the clock now and then; true once the search must stop
+    private boolean countNode() {
+        nodes++;
+        if ((nodes % CHECK_INTERVAL) == 0 && completedDepth > 0
+                && (stopSignal.get() || time.hardLimitReached())) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    // m is the new best move at ply: the line is m followed by the best line from ply + 1
+    private void updatePv(int ply, int m) {
+        pv[ply][ply] = m;
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = pvLength[ply + 1];
+    }
+
+    // The game's moves as Move objects, decoded on the board each move is played from
+    private List<Move> decodeLine(int[] line, int length) {
+        List<Move> out = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            out.add(Move.decode(line[i], game.board()));
+            game.makeMove(line[i]);
+        }
+        for (int i = 0; i < length; i++) game.unmakeMove();
+        return out;
+    }
+
+    // Mate scores are stored relative to the node, not the root
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score + ply;
+        if (score <= -MATE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score - ply;
+        if (score <= -MATE + MAX_PLY) return score + ply;
+        return score;
+    }
+
+    // A quiet move refuted the opponent's last move: try it early at this ply and elsewhere
+    private void rememberCutoff(int move, int side, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] h = history[side];
+        int i = MovePicker.historyIndex(move);
+        h[i] += depth * depth;
+        if (h[i] > HISTORY_MAX) ageHistory();
+    }
+
+    private void ageHistory() {
+        for (int[] h : history) {
+            for (int i = 0; i < h.length; i++) h[i] >>= 1;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package engine;
+
+import java.util.List;
+import model.board.Move;
+
+/**
+ * Outcome of a search: the move to play, its score in centipawns from the
+ * mover's point of view (mates are ±(Search.MATE - plies)), the principal
+ * variation starting with that move, the depth reached and nodes visited.
+ */
+public record SearchResult(Move bestMove, int score, List<Move> pv, int depth, long nodes) {
+
+    /** True if the score announces a forced mate (for either side). */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+}
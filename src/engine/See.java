@@ -0,0 +1,90 @@
+package engine;
+
+import model.board.Attacks;
+import model.board.BitBoard;
+import model.board.PackedMove;
+import model.pieces.Piece;
+
+/**
+ * Static exchange evaluation: the material a capture wins or loses once every
+ * recapture on its square has been played out, each side always recapturing
+ * with its least valuable piece and free to stop when going on would lose.
+ * Attackers come from the attack tables; a slider behind a piece that has
+ * just captured (an x-ray) joins in when that piece leaves the square's lines.
+ *
+ * Pins and checks are ignored, as is usual for SEE: it is an estimate used to
+ * order captures and to drop the clearly losing ones from the quiescence search.
+ *
+ * One instance per search (it keeps a scratch buffer).
+ */
+final class See {
+
+    // High enough that losing the king always ends the exchange as a loss
+    private static final int KING_VALUE = 20000;
+
+    // gain[d]: material balance for the side making capture d if the exchange stopped there
+    private final int[] gain = new int[32];
+
+    /** True for a capture whose exchange loses material (only captures of a cheaper piece are checked). */
+    boolean isLosing(BitBoard b, int move) {
+        return PackedMove.isCapture(move)
+                && value(PackedMove.captured(move)) < value(PackedMove.piece(move))
+                && see(b, move) < 0;
+    }
+
+    /**
+     * Material won by {@code move} (a capture and/or promotion) after the exchange on its square.
+     * The sign is always exact; an exchange cut short once its sign is settled may report less.
+     */
+    int see(BitBoard b, int move) {
+        int from = PackedMove.from(move), to = PackedMove.to(move);
+        boolean white = b.pieceAt(from).isWhite();
+        int promotion = PackedMove.promotion(move);
+        long occ = b.occupancy() & ~(1L << from);
+        if (PackedMove.isEnPassant(move)) occ &= ~(1L << (white ? to + 8 : to - 8));
+
+        gain[0] = PackedMove.isCapture(move) ? value(PackedMove.captured(move)) : 0;
+        int onSquare = value(PackedMove.piece(move)); // value of the piece standing on the square
+        if (promotion >= 0) {
+            gain[0] += value(promotion) - value(Piece.PAWN);
+            onSquare = value(promotion);
+        }
+
+        long attackers = Attacks.attackersTo(b, to, occ);
+        boolean side = !white;
+        int d = 0;
+        while (true) {
+            long own = attackers & b.occupancy(side);
+            if (own == 0) break;
+            int type = leastValuable(b, own, side);
+            long from1 = Long.lowestOneBit(own & b.bitboard(type, side));
+            d++;
+            gain[d] = onSquare - gain[d - 1];
+            // Recapturing loses whatever follows and not recapturing loses already:
+            // the exchange's sign is settled, so stop here without this capture
+            if (Math.max(-gain[d - 1], gain[d]) < 0) {
+                d--;
+                break;
+            }
+            occ &= ~from1;
+            attackers = Attacks.attackersTo(b, to, occ);
+            onSquare = value(type);
+            side = !side;
+            if (d == gain.length - 1) break;
+        }
+        // Each side may stop instead of recapturing: fold back from the last capture
+        for (; d > 0; d--) gain[d - 1] = -Math.max(-gain[d - 1], gain[d]);
+        return gain[0];
+    }
+
+    static int value(int type) {
+        return type == Piece.KING ? KING_VALUE : Evaluation.pieceValue(type);
+    }
+
+    private static int leastValuable(BitBoard b, long attackers, boolean white) {
+        for (int type = Piece.PAWN; type < Piece.KING; type++) {
+            if ((attackers & b.bitboard(type, white)) != 0) return type;
+        }
+        return Piece.KING;
+    }
+}
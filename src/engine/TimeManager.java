@@ -0,0 +1,79 @@
+package engine;
+
+import controller.Game;
+import model.board.BitBoard;
+import model.pieces.Piece;
+
+/**
+ * Thinking-time budget for one move.
+ *
+ * The soft limit is the target time for the move. Since each iteration takes
+ * longer than all previous ones together, no new iteration starts after half
+ * of it. The hard limit aborts the running iteration, and it stays well inside
+ * the remaining clock so the engine never loses on time.
+ */
+public final class TimeManager {
+
+    // Time reserved for GUI/worker latency and the 100 ms timer granularity
+    private static final long OVERHEAD_MILLIS = 150;
+    private static final long MIN_MILLIS = 10;
+
+    private final long softMillis;
+    private final long hardMillis;
+    private long startNanos;
+
+    private TimeManager(long softMillis, long hardMillis) {
+        this.softMillis = softMillis;
+        this.hardMillis = hardMillis;
+    }
+
+    /** No time limit (fixed-depth searches). */
+    public static TimeManager infinite() {
+        return new TimeManager(Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /** Exactly {@code millis} per move. */
+    public static TimeManager fixed(long millis) {
+        return new TimeManager(millis, millis);
+    }
+
+    /**
+     * Budget from the mover's remaining clock, the increment and the game phase:
+     * with most pieces on the board more moves remain to be played, so each move
+     * gets a smaller share of the clock than in the endgame.
+     */
+    public static TimeManager forClock(long remainingMillis, long incrementMillis, Game game) {
+        long usable = Math.max(0, remainingMillis - OVERHEAD_MILLIS);
+        int movesToGo = 20 + phase(game.board()); // 44 at the start, 20 in a bare endgame
+
+        long soft = usable / movesToGo + incrementMillis * 3 / 4;
+        long hard = Math.min(soft * 3, usable / 5 + incrementMillis / 2);
+        hard = Math.max(MIN_MILLIS, Math.min(hard, usable / 2));
+        soft = Math.max(MIN_MILLIS, Math.min(soft, hard));
+        return new TimeManager(soft, hard);
+    }
+
+    /** Non-pawn material on the board: 24 in the opening down to 0 (N, B = 1; R = 2; Q = 4). */
+    static int phase(BitBoard b) {
+        int phase = 0;
+        for (boolean white : new boolean[] {true, false}) {
+            phase += b.count(Piece.KNIGHT, white) + b.count(Piece.BISHOP, white)
+                    + 2 * b.count(Piece.ROOK, white) + 4 * b.count(Piece.QUEEN, white);
+        }
+        return Math.min(phase, 24);
+    }
+
+    public void start() { startNanos = System.nanoTime(); }
+
+    public long elapsedMillis() { return (System.nanoTime() - startNanos) / 1_000_000; }
+
+    public long softMillis() { return softMillis; }
+
+    public long hardMillis() { return hardMillis; }
+
+    /** True while there is time to begin (and most likely finish) another iteration. */
+    public boolean canStartIteration() { return elapsedMillis() < softMillis / 2; }
+
+    /** True once the running iteration must be abandoned. */
+    public boolean hardLimitReached() { return elapsedMillis() >= hardMillis; }
+}
@@ -0,0 +1,146 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Lock-free transposition table shared by all search threads.
+ *
+ * Each entry is two longs, {@code key ^ data} and {@code data}. A reader
+ * accepts the entry only if XORing the two gives back its key, so an entry
+ * torn by two threads writing at once simply reads as a miss.
+ *
+ * Entries are grouped in buckets of four (64 bytes, one cache line). A store
+ * reuses the slot of the same position if there is one; otherwise it evicts
+ * the slot worth least, where entries lose worth with shallower depth and with
+ * every search since they were written ({@link #newSearch()}).
+ *
+ * Data layout: bits 0-23 move ({@link model.board.PackedMove}), 24-39 score,
+ * 40-47 depth, 48-49 bound, 50-55 age. Probes and stores allocate nothing.
+ *
+ * The table keeps no statistics of its own: counters written by every thread
+ * on every probe would make all cores fight over one cache line. Callers count
+ * hits from {@link #probe} and collisions from {@link #store} themselves (each
+ * {@link Search} does, and {@link LazySmp} sums them).
+ */
+public final class TranspositionTable {
+
+    public static final int BOUND_UPPER = 1; // score <= stored (failed low)
+    public static final int BOUND_LOWER = 2; // score >= stored (failed high)
+    public static final int BOUND_EXACT = 3;
+
+    private static final int BUCKET_SLOTS = 4;
+    private static final int ENTRY_BYTES = 16;
+    // 2^27 buckets = 2^30 longs (8 GB): the largest power of two an array can hold
+    private static final int MAX_BUCKETS = 1 << 27;
+    /** Largest table {@link #ofMegabytes} builds: {@value #MAX_BUCKETS} buckets of four 16-byte slots. */
+    public static final int MAX_MEGABYTES = (int) ((long) MAX_BUCKETS * BUCKET_SLOTS * ENTRY_BYTES >> 20);
+    /** Table size used when -Dchess.hashMb is not given. */
+    public static final int DEFAULT_MEGABYTES = 16;
+    private static final int AGE_MASK = 0x3F;
+    // Depth plies one search of age is worth when choosing a slot to evict
+    private static final int AGE_WEIGHT = 8;
+
+    private final long[] table;
+    private final int bucketMask;
+    private int age;
+
+    /**
+     * Table with {@code entries} slots, rounded down to a power of two
+     * (at least one bucket, at most {@value #MAX_BUCKETS} buckets of four).
+     */
+    public TranspositionTable(int entries) {
+        int buckets = Math.min(Integer.highestOneBit(Math.max(1, entries / BUCKET_SLOTS)), MAX_BUCKETS);
+        this.table = new long[buckets * BUCKET_SLOTS * 2];
+        this.bucketMask = buckets - 1;
+    }
+
+    /** Largest table that fits in {@code megabytes} MB (capped at 8 GB). */
+    public static TranspositionTable ofMegabytes(int megabytes) {
+        long entries = Math.max(1L, megabytes) * 1024 * 1024 / ENTRY_BYTES;
+        return new TranspositionTable((int) Math.min(entries, (long) MAX_BUCKETS * BUCKET_SLOTS));
+    }
+
+    /** Table size in MB from -Dchess.hashMb (default {@value #DEFAULT_MEGABYTES}), clamped to 1..{@value #MAX_MEGABYTES}. */
+    public static int defaultMegabytes() {
+        int mb = Integer.getInteger("chess.hashMb", DEFAULT_MEGABYTES);
+        return Math.max(1, Math.min(mb, MAX_MEGABYTES));
+    }
+
+    /** Number of entry slots. */
+    public int capacity() { return table.length / 2; }
+
+    public long sizeBytes() { return (long) table.length * Long.BYTES; }
+
+    /** Starts a new search: older entries become the first to be replaced. */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /** Data of the entry for {@code key}, or 0 if there is none. */
+    public long probe(long key) {
+        int base = bucket(key);
+        for (int i = base; i < base + BUCKET_SLOTS * 2; i += 2) {
+            long data = table[i + 1];
+            if (data != 0 && (table[i] ^ data) == key) return data;
+        }
+        return 0L;
+    }
+
+    /** Stores an entry; true if that evicted the entry of a different position (a collision). */
+    public boolean store(long key, int depth, int score, int bound, int move) {
+        int base = bucket(key);
+        int slot = base;
+        int worst = Integer.MAX_VALUE;
+        for (int i = base; i < base + BUCKET_SLOTS * 2; i += 2) {
+            long old = table[i + 1];
+            if (old == 0) {
+                slot = i;
+                break;
+            }
+            if ((table[i] ^ old) == key) {
+                // Same position: keep a deeper bound from this search, and the old move if there's no new one
+                if (bound != BOUND_EXACT && depth < depth(old) && age(old) == age) return false;
+                if (move == 0) move = move(old);
+                slot = i;
+                break;
+            }
+            int worth = depth(old) - AGE_WEIGHT * ((age - age(old)) & AGE_MASK);
+            if (worth < worst) {
+                worst = worth;
+                slot = i;
+            }
+        }
+        long old = table[slot + 1];
+        boolean collision = old != 0 && (table[slot] ^ old) != key;
+
+        long data = (move & 0xFFFFFFL)
+                | ((score & 0xFFFFL) << 24)
+                | ((long) (depth & 0xFF) << 40)
+                | ((long) bound << 48)
+                | ((long) age << 50);
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+        return collision;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+    }
+
+    // ---------- Entry fields ----------
+
+    public static int move(long data) { return (int) (data & 0xFFFFFF); }
+
+    public static int score(long data) { return (short) (data >>> 24); }
+
+    public static int depth(long data) { return (int) ((data >>> 40) & 0xFF); }
+
+    public static int bound(long data) { return (int) ((data >>> 48) & 0x3); }
+
+    private static int age(long data) { return (int) ((data >>> 50) & AGE_MASK); }
+
+    private int bucket(long key) {
+        return ((int) key & bucketMask) * BUCKET_SLOTS * 2;
+    }
+}
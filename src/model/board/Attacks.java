@@ -0,0 +1,144 @@
+// ========================= src/model/board/Attacks.java =========================
+package model.board;
+
+import model.pieces.Piece;
+
+/**
+ * Tabelas de ataque pré-calculadas (bitboards, bit i = casa i = linha * 8 + coluna).
+ *
+ * - cavalo, rei e capturas de peão por cor: uma máscara por casa;
+ * - raios nas 8 direções a partir de cada casa (até a borda, sem a própria casa);
+ * - entre/linha para cada par de casas alinhadas.
+ *
+ * Os ataques de torre/bispo/dama vêm das tabelas mágicas de {@link Magics};
+ * os raios servem de referência para montá-las.
+ */
+public final class Attacks {
+
+    // Direções: N, S, O, L, NO, NE, SO, SE (N = linha 8, índice diminui)
+    public static final int NORTH = 0, SOUTH = 1, WEST = 2, EAST = 3,
+                            NORTH_WEST = 4, NORTH_EAST = 5, SOUTH_WEST = 6, SOUTH_EAST = 7;
+    private static final int[] DIR_ROW = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DIR_COL = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    // [0 = brancas, 1 = pretas][casa]: casas que um peão daquela cor ataca
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] jumps = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        for (int sq = 0; sq < 64; sq++) {
+            int r = sq >>> 3, c = sq & 7;
+            for (int[] d : jumps) KNIGHT[sq] |= bit(r + d[0], c + d[1]);
+            for (int dir = 0; dir < 8; dir++) {
+                KING[sq] |= bit(r + DIR_ROW[dir], c + DIR_COL[dir]);
+                for (int rr = r + DIR_ROW[dir], cc = c + DIR_COL[dir]; bit(rr, cc) != 0; rr += DIR_ROW[dir], cc += DIR_COL[dir]) {
+                    RAYS[dir][sq] |= bit(rr, cc);
+                }
+            }
+            PAWN[0][sq] = bit(r - 1, c - 1) | bit(r - 1, c + 1); // brancas sobem (linha diminui)
+            PAWN[1][sq] = bit(r + 1, c - 1) | bit(r + 1, c + 1);
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int dir = 0; dir < 8; dir++) {
+                for (long ray = RAYS[dir][a]; ray != 0; ray &= ray - 1) {
+                    int b = Long.numberOfTrailingZeros(ray);
+                    BETWEEN[a][b] = RAYS[dir][a] & RAYS[reverse(dir)][b];
+                    LINE[a][b] = RAYS[dir][a] | RAYS[reverse(dir)][a] | (1L << a);
+                }
+            }
+        }
+    }
+
+    private Attacks() { }
+
+    public static long knight(int sq) { return KNIGHT[sq]; }
+
+    public static long king(int sq) { return KING[sq]; }
+
+    /** Casas atacadas por um peão da cor indicada na casa {@code sq}. */
+    public static long pawn(boolean white, int sq) { return PAWN[white ? 0 : 1][sq]; }
+
+    /** Raio a partir de {@code sq} numa direção (NORTH..SOUTH_EAST), até a borda. */
+    public static long ray(int dir, int sq) { return RAYS[dir][sq]; }
+
+    /** Casas estritamente entre a e b se estiverem alinhadas (linha, coluna ou diagonal); senão 0. */
+    public static long between(int a, int b) { return BETWEEN[a][b]; }
+
+    /** Linha inteira (de borda a borda) que passa por a e b se estiverem alinhadas; senão 0. */
+    public static long line(int a, int b) { return LINE[a][b]; }
+
+    /** Ataques de torre em {@code sq} com a ocupação dada (inclui a primeira peça de cada raio). */
+    public static long rook(int sq, long occ) {
+        return Magics.rook(sq, occ);
+    }
+
+    /** Ataques de bispo em {@code sq} com a ocupação dada. */
+    public static long bishop(int sq, long occ) {
+        return Magics.bishop(sq, occ);
+    }
+
+    public static long queen(int sq, long occ) {
+        return Magics.rook(sq, occ) | Magics.bishop(sq, occ);
+    }
+
+    /**
+     * Peças da cor {@code byWhite} em {@code b} que atacam {@code sq}, contando só as
+     * que estão em {@code occ}; os deslizantes enxergam através das casas fora de occ
+     * (peças já removidas numa troca, ou o rei que sai da linha do xeque).
+     */
+    public static long attackersTo(BitBoard b, int sq, boolean byWhite, long occ) {
+        long queens = b.bitboard(Piece.QUEEN, byWhite);
+        // Um peão inimigo ataca sq se estiver numa casa que um peão nosso em sq atacaria
+        long attackers = (pawn(!byWhite, sq) & b.bitboard(Piece.PAWN, byWhite))
+                | (knight(sq) & b.bitboard(Piece.KNIGHT, byWhite))
+                | (king(sq) & b.bitboard(Piece.KING, byWhite))
+                | (rook(sq, occ) & (b.bitboard(Piece.ROOK, byWhite) | queens))
+                | (bishop(sq, occ) & (b.bitboard(Piece.BISHOP, byWhite) | queens));
+        return attackers & occ;
+    }
+
+    /** Atacantes de {@code sq} das duas cores (ver {@link #attackersTo(BitBoard, int, boolean, long)}). */
+    public static long attackersTo(BitBoard b, int sq, long occ) {
+        return attackersTo(b, sq, true, occ) | attackersTo(b, sq, false, occ);
+    }
+
+    // Versões pelos raios: referência para gerar e conferir as tabelas de Magics
+    static long rookByRays(int sq, long occ) {
+        return slideDown(NORTH, sq, occ) | slideUp(SOUTH, sq, occ) | slideDown(WEST, sq, occ) | slideUp(EAST, sq, occ);
+    }
+
+    static long bishopByRays(int sq, long occ) {
+        return slideDown(NORTH_WEST, sq, occ) | slideDown(NORTH_EAST, sq, occ)
+                | slideUp(SOUTH_WEST, sq, occ) | slideUp(SOUTH_EAST, sq, occ);
+    }
+
+    // Raio cortado na primeira peça. Nas direções em que o índice cresce (S, L, SO, SE)
+    // ela é o bit mais baixo do raio ocupado; nas outras, o mais alto.
+    private static long slideUp(int dir, int sq, long occ) {
+        long ray = RAYS[dir][sq];
+        long blockers = ray & occ;
+        return blockers == 0 ? ray : ray ^ RAYS[dir][Long.numberOfTrailingZeros(blockers)];
+    }
+
+    private static long slideDown(int dir, int sq, long occ) {
+        long ray = RAYS[dir][sq];
+        long blockers = ray & occ;
+        return blockers == 0 ? ray : ray ^ RAYS[dir][63 - Long.numberOfLeadingZeros(blockers)];
+    }
+
+    private static int reverse(int dir) {
+        for (int d = 0; d < 8; d++) {
+            if (DIR_ROW[d] == -DIR_ROW[dir] && DIR_COL[d] == -DIR_COL[dir]) return d;
+        }
+        throw new IllegalArgumentException("direção inválida: " + dir);
+    }
+
+    private static long bit(int r, int c) {
+        return r >= 0 && r < 8 && c >= 0 && c < 8 ? 1L << (r * 8 + c) : 0L;
+    }
+}
@@ -0,0 +1,123 @@
+// ========================= src/model/board/BitBoard.java =========================
+package model.board;
+
+import java.util.Arrays;
+import model.pieces.Piece;
+
+/**
+ * Tabuleiro com núcleo em bitboards: além da grade de peças herdada de Board,
+ * mantém 12 bitboards (um por tipo e cor) e as máscaras de ocupação.
+ *
+ * Convenção de bits: bit i = casa de índice i = linha * 8 + coluna
+ * (bit 0 = a8, bit 7 = h8, bit 56 = a1, bit 63 = h1).
+ *
+ * get/set/remove/pieces têm exatamente a mesma semântica de Board; as consultas
+ * extras (bitboard, occupancy, count, ...) são para o controller e a IA.
+ */
+public class BitBoard extends Board {
+
+    // Índice = tipo (Piece.PAWN..Piece.KING) + (branca ? 0 : 6)
+    private final long[] bitboards = new long[12];
+    private long whiteOccupancy;
+    private long blackOccupancy;
+
+    @Override
+    public void set(Position p, Piece piece) {
+        if (!isInside(p)) return;
+        int sq = index(p);
+        Piece old = squares[sq];
+        if (old != null) clearBit(old, sq);
+        super.set(p, piece);
+        if (piece != null) setBit(piece, sq);
+    }
+
+    @Override
+    public Piece remove(Position p) {
+        Piece old = super.remove(p);
+        if (old != null) clearBit(old, index(p));
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(bitboards, 0L);
+        whiteOccupancy = 0L;
+        blackOccupancy = 0L;
+    }
+
+    /** Como Board.generateMoves, percorrendo só as casas ocupadas pela cor. */
+    @Override
+    public void generateMoves(boolean white, MoveList out) {
+        out.clear();
+        for (long occ = occupancy(white); occ != 0; occ &= occ - 1) {
+            int sq = Long.numberOfTrailingZeros(occ);
+            squares[sq].generateMoves(this, sq, out);
+        }
+    }
+
+    /** Cópia: grade e listas como Board.copy, mais os bitboards. */
+    @Override
+    public BitBoard copy() {
+        BitBoard b = new BitBoard();
+        copyInto(b);
+        System.arraycopy(bitboards, 0, b.bitboards, 0, 12);
+        b.whiteOccupancy = whiteOccupancy;
+        b.blackOccupancy = blackOccupancy;
+        return b;
+    }
+
+    // ---------- Consultas nativas ----------
+
+    /** Bitboard das peças de um tipo (Piece.PAWN..Piece.KING) e cor. */
+    public long bitboard(int type, boolean white) {
+        return bitboards[type + (white ? 0 : 6)];
+    }
+
+    /** Casas ocupadas por peças de uma cor. */
+    public long occupancy(boolean white) {
+        return white ? whiteOccupancy : blackOccupancy;
+    }
+
+    /** Todas as casas ocupadas. */
+    @Override
+    public long occupancy() {
+        return whiteOccupancy | blackOccupancy;
+    }
+
+    /** Quantidade de peças de um tipo e cor. */
+    public int count(int type, boolean white) {
+        return Long.bitCount(bitboard(type, white));
+    }
+
+    /** Retorna true se a casa 0..63 estiver ocupada. */
+    public boolean isOccupied(int square) {
+        return (occupancy() & (1L << square)) != 0;
+    }
+
+    // ---------- Utilidades de casas ----------
+
+    /** Índice 0..63 de uma posição válida. */
+    public static int square(Position p) {
+        return index(p);
+    }
+
+    /** Posição correspondente a uma casa 0..63. */
+    public static Position position(int square) {
+        return Position.of(square);
+    }
+
+    // ---------- Manutenção dos bitboards ----------
+
+    private void setBit(Piece piece, int sq) {
+        long bit = 1L << sq;
+        bitboards[piece.type() + (piece.isWhite() ? 0 : 6)] |= bit;
+        if (piece.isWhite()) whiteOccupancy |= bit; else blackOccupancy |= bit;
+    }
+
+    private void clearBit(Piece piece, int sq) {
+        long bit = ~(1L << sq);
+        bitboards[piece.type() + (piece.isWhite() ? 0 : 6)] &= bit;
+        if (piece.isWhite()) whiteOccupancy &= bit; else blackOccupancy &= bit;
+    }
+}
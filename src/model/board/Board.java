@@ -2,12 +2,24 @@
 package model.board;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import model.pieces.Piece;
 
 public class Board {
 
-    private final Piece[][] grid = new Piece[8][8];
+    // Casas em ordem linear: índice = linha * 8 + coluna (0 = a8, 63 = h1)
+    protected final Piece[] squares = new Piece[64];
+
+    // Listas de peças por cor ([0 = brancas, 1 = pretas]): casas ocupadas, em ordem
+    // qualquer, mantidas por set/remove. listIndex[casa] = posição da casa na lista.
+    private final int[][] pieceSquares = new int[2][64];
+    private final int[] pieceCount = new int[2];
+    private final int[] listIndex = new int[64];
+    private final int[] kingSquare = {-1, -1};
+
+    // Avisado a cada peça colocada/retirada (não é copiado por copy())
+    private BoardListener listener;
 
     /** Verifica se a posição está dentro do tabuleiro (0..7). */
     public boolean isInside(Position p) {
@@ -16,7 +28,12 @@ public class Board {
 
     /** Retorna a peça na posição ou null se vazio/fora. */
     public Piece get(Position p) {
-        return isInside(p) ? grid[p.getRow()][p.getColumn()] : null;
+        return isInside(p) ? squares[index(p)] : null;
+    }
+
+    /** Retorna a peça na casa 0..63 (linha * 8 + coluna) ou null se vazia. */
+    public Piece pieceAt(int square) {
+        return squares[square];
     }
 
     /**
@@ -25,18 +42,19 @@ public class Board {
      */
     public void set(Position p, Piece piece) {
         if (!isInside(p)) return;
-        grid[p.getRow()][p.getColumn()] = piece;
-        if (piece != null) {
-            // Mantém referência de posição da peça sincronizada
-            piece.setPosition(p);
-        }
+        int sq = index(p);
+        if (squares[sq] != null) unlist(squares[sq], sq);
+        squares[sq] = piece;
+        if (piece != null) list(piece, sq);
     }
 
     /** Remove e retorna a peça da posição (ou null). */
     public Piece remove(Position p) {
         if (!isInside(p)) return null;
-        Piece old = grid[p.getRow()][p.getColumn()];
-        grid[p.getRow()][p.getColumn()] = null;
+        int sq = index(p);
+        Piece old = squares[sq];
+        squares[sq] = null;
+        if (old != null) unlist(old, sq);
         return old;
     }
 
@@ -52,47 +70,121 @@ public class Board {
 
     /** Limpa completamente o tabuleiro. */
     public void clear() {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                grid[r][c] = null;
+        if (listener != null) {
+            for (int c = 0; c < 2; c++) {
+                for (int i = 0; i < pieceCount[c]; i++) listener.pieceRemoved(squares[pieceSquares[c][i]], pieceSquares[c][i]);
             }
         }
+        Arrays.fill(squares, null);
+        pieceCount[0] = pieceCount[1] = 0;
+        kingSquare[0] = kingSquare[1] = -1;
     }
 
-    /** Lista todas as peças de uma cor. */
+    /** Lista todas as peças de uma cor (ordem não especificada). */
     public List<Piece> pieces(boolean white) {
-        List<Piece> out = new ArrayList<>();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece pc = grid[r][c];
-                if (pc != null && pc.isWhite() == white) out.add(pc);
-            }
-        }
+        int c = white ? 0 : 1;
+        List<Piece> out = new ArrayList<>(pieceCount[c]);
+        for (int i = 0; i < pieceCount[c]; i++) out.add(squares[pieceSquares[c][i]]);
         return out;
     }
 
+    /**
+     * Registra quem deve ser avisado de cada peça colocada ou retirada
+     * (null remove). Só um por tabuleiro; as cópias começam sem nenhum.
+     */
+    public void setListener(BoardListener listener) {
+        this.listener = listener;
+    }
+
+    /** Quantidade de peças de uma cor. */
+    public int pieceCount(boolean white) {
+        return pieceCount[white ? 0 : 1];
+    }
+
+    /**
+     * Casa da i-ésima peça da cor (0 <= i < pieceCount): percorre as peças sem
+     * alocar. A ordem muda quando peças entram ou saem do tabuleiro.
+     */
+    public int pieceSquare(boolean white, int i) {
+        return pieceSquares[white ? 0 : 1][i];
+    }
+
+    /** Casa (0..63) do rei da cor indicada, ou -1 se não houver rei. */
+    public int kingSquare(boolean white) {
+        return kingSquare[white ? 0 : 1];
+    }
+
     /** Alias conveniente (evita divergência de nomes em outras classes). */
     public List<Piece> getPieces(boolean white) {
         return pieces(white);
     }
 
+    /** Casas ocupadas como bitboard (bit i = casa i); BitBoard mantém isso pronto. */
+    public long occupancy() {
+        long occ = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            if (squares[sq] != null) occ |= 1L << sq;
+        }
+        return occ;
+    }
+
+    /**
+     * Pseudo-movimentos de todas as peças de uma cor, gravados em {@code out}
+     * (limpa antes) como {@link PackedMove}, sem alocar. Roque e en passant
+     * ficam com o Game.
+     */
+    public void generateMoves(boolean white, MoveList out) {
+        out.clear();
+        int c = white ? 0 : 1;
+        for (int i = 0; i < pieceCount[c]; i++) {
+            int sq = pieceSquares[c][i];
+            squares[sq].generateMoves(this, sq, out);
+        }
+    }
+
     /**
-     * Cópia profunda do tabuleiro (clona peças para o novo Board).
-     * Requer que Piece.copyFor(b) crie uma nova peça já associada ao Board b,
-     * preservando cor/estado (ex.: moved) e que aqui definimos a Position corretamente.
+     * Cópia independente do tabuleiro. As peças não têm estado (ver
+     * {@link Piece#of}), então a cópia é só a grade e as listas de peças.
      */
     public Board copy() {
         Board b = new Board();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = grid[r][c];
-                if (p != null) {
-                    Piece cp = p.copyFor(b);                 // nova peça ligada ao Board "b"
-                    b.grid[r][c] = cp;                       // atribui diretamente (evita set() duplicado)
-                    cp.setPosition(new Position(r, c));      // sincroniza a posição do clone
-                }
-            }
-        }
+        copyInto(b);
         return b;
     }
+
+    /** Copia grade, listas de peças e casas dos reis para {@code b} (usado pelas cópias). */
+    protected void copyInto(Board b) {
+        System.arraycopy(squares, 0, b.squares, 0, 64);
+        for (int c = 0; c < 2; c++) {
+            System.arraycopy(pieceSquares[c], 0, b.pieceSquares[c], 0, pieceCount[c]);
+            b.pieceCount[c] = pieceCount[c];
+            b.kingSquare[c] = kingSquare[c];
+        }
+        System.arraycopy(listIndex, 0, b.listIndex, 0, 64);
+    }
+
+    // ---------- Manutenção das listas ----------
+
+    private void list(Piece piece, int sq) {
+        int c = piece.isWhite() ? 0 : 1;
+        listIndex[sq] = pieceCount[c];
+        pieceSquares[c][pieceCount[c]++] = sq;
+        if (piece.type() == Piece.KING) kingSquare[c] = sq;
+        if (listener != null) listener.pieceAdded(piece, sq);
+    }
+
+    // Remoção O(1): a última casa da lista ocupa o lugar da que saiu
+    private void unlist(Piece piece, int sq) {
+        int c = piece.isWhite() ? 0 : 1;
+        int last = pieceSquares[c][--pieceCount[c]];
+        pieceSquares[c][listIndex[sq]] = last;
+        listIndex[last] = listIndex[sq];
+        if (piece.type() == Piece.KING && kingSquare[c] == sq) kingSquare[c] = -1;
+        if (listener != null) listener.pieceRemoved(piece, sq);
+    }
+
+    /** Índice linear 0..63 de uma posição válida. */
+    protected static int index(Position p) {
+        return p.index();
+    }
 }
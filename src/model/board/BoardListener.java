@@ -0,0 +1,16 @@
+// ========================= src/model/board/BoardListener.java =========================
+package model.board;
+
+import model.pieces.Piece;
+
+/**
+ * Avisado de cada peça que entra ou sai de um {@link Board} (set/remove, e
+ * portanto todo make/unmake). Serve para manter fora do modelo um estado que
+ * acompanha o tabuleiro lance a lance, como a avaliação incremental da IA.
+ */
+public interface BoardListener {
+
+    void pieceAdded(Piece piece, int square);
+
+    void pieceRemoved(Piece piece, int square);
+}
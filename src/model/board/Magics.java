@@ -0,0 +1,183 @@
+// ========================= src/model/board/Magics.java =========================
+package model.board;
+
+import java.util.SplittableRandom;
+
+/**
+ * Ataques de torre e bispo por "magic bitboards": uma multiplicação e um
+ * deslocamento levam as peças relevantes de um raio a um índice de tabela,
+ * e a tabela guarda os ataques prontos — O(1) para qualquer ocupação.
+ *
+ * Os números mágicos vêm de uma busca determinística (semente fixa, ver
+ * {@link #main}) e ficam gravados abaixo. Na carga da classe cada número é
+ * conferido contra os ataques calculados pelos raios de {@link Attacks} ao
+ * preencher a tabela; se algum falhasse, a busca com a mesma semente
+ * continuaria dali. O tempo de carga fica em {@link #initNanos()}.
+ */
+public final class Magics {
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] ROOK_MAGIC = new long[64];
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final int[] ROOK_OFFSET = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final long[] BISHOP_MAGIC = new long[64];
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final int[] BISHOP_OFFSET = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    private static final long INIT_NANOS;
+
+    // Números achados por main() com SEED; na carga só são conferidos (uma passada por casa)
+    private static final long[] KNOWN_ROOK = {
+        0x7080024000108620L, 0x0040200010004000L, 0x0100081020004500L, 0x3880048110000801L,
+        0x4200200200080410L, 0x2400900400082002L, 0x45000B000F860004L, 0x220004038040A116L,
+        0x010280002084400AL, 0x0026402004401000L, 0x0045002002110048L, 0x0043002300100009L,
+        0x004280801C002800L, 0x4001800401801200L, 0x1005000411000200L, 0x408100120040A100L,
+        0x0160808000401020L, 0x0020004008205000L, 0x0000430010200300L, 0x4001818008005000L,
+        0x1D04008008008004L, 0x6002080110204004L, 0x2009040001081002L, 0x8094020020804401L,
+        0x00C00049800080A7L, 0x80015000C0002000L, 0xC000220200108040L, 0x00A8018480100108L,
+        0x0818008080080401L, 0x0A00040080020080L, 0x1A01080400104A31L, 0x000200A200011044L,
+        0x4080006001400040L, 0x240080400C802000L, 0x880500104100200AL, 0x0C02002012004008L,
+        0x0000800800800401L, 0x0402002004040010L, 0x0A06888104001002L, 0x01A0A400A2000041L,
+        0x00C0008000428022L, 0x5048C0E010054000L, 0x0010012000848011L, 0x0004100209010020L,
+        0x8000040008008080L, 0x2C08020004008080L, 0x0800020841040010L, 0x0006004408820019L,
+        0x1010400030800180L, 0x0280882000400880L, 0x02810098A0004300L, 0x02E4914840220200L,
+        0xA094800802040080L, 0x00220010A8045200L, 0x8000810210080400L, 0x2004800100016280L,
+        0x0000201040800D01L, 0x00090010E0854001L, 0x0000090040200011L, 0x014B0008A4300121L,
+        0x1806002004100802L, 0x0883000400020801L, 0x00101CA228051004L, 0x0438088100402402L,
+    };
+
+    private static final long[] KNOWN_BISHOP = {
+        0x0229120802002200L, 0x00C4210809010800L, 0x080808210322020CL, 0x0628204040010201L,
+        0x0006021148000000L, 0x00008804C0040120L, 0x0040411048A0AC00L, 0x0000218218904002L,
+        0x4000091001020402L, 0xC004040410A42100L, 0x2224040800810608L, 0x0224044400800202L,
+        0x0080040420201000L, 0x2800010402410300L, 0x0000284814100882L, 0x0811010090900800L,
+        0x0840402424880602L, 0x00A00C4214142081L, 0x4990005E02801504L, 0x008C010802482841L,
+        0x1000821400A04038L, 0x01420054C9042000L, 0x2080405201700800L, 0x082200804A00C400L,
+        0x28040480C0100489L, 0x00041080841000C1L, 0x0224120174002400L, 0x0060124008004040L,
+        0x0011040082002101L, 0x080202802808900BL, 0x0004008101084110L, 0x4820408021008800L,
+        0x300608A000426200L, 0x30080808000401A0L, 0x050361880C300020L, 0x0082080800020A00L,
+        0x0040008208110100L, 0x0008882200644102L, 0x031004004800820EL, 0x0841441024110100L,
+        0x0089211820404004L, 0x0002013003110800L, 0x80D3A01050001800L, 0x0C00802014410801L,
+        0x800102020C000204L, 0x0004080048122100L, 0x00A0420200500200L, 0x0322080200360080L,
+        0x0816020282401008L, 0x0000840412428040L, 0x0108408404291024L, 0x0420080021981001L,
+        0x8000102020825004L, 0x110244A038024000L, 0x02502009040A8810L, 0x0032820404009000L,
+        0x0A88210100A0A004L, 0x1920060082211024L, 0x0010010100411000L, 0x4003084812104420L,
+        0x20800012D0020220L, 0x0600022004109086L, 0x2020080208082120L, 0x052444500C002080L,
+    };
+
+    static {
+        long start = System.nanoTime();
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        ROOK_TABLE = build(true, ROOK_MASK, ROOK_MAGIC, ROOK_SHIFT, ROOK_OFFSET, KNOWN_ROOK, rnd);
+        BISHOP_TABLE = build(false, BISHOP_MASK, BISHOP_MAGIC, BISHOP_SHIFT, BISHOP_OFFSET, KNOWN_BISHOP, rnd);
+        INIT_NANOS = System.nanoTime() - start;
+    }
+
+    private Magics() { }
+
+    public static long rook(int sq, long occ) {
+        return ROOK_TABLE[ROOK_OFFSET[sq] + (int) (((occ & ROOK_MASK[sq]) * ROOK_MAGIC[sq]) >>> ROOK_SHIFT[sq])];
+    }
+
+    public static long bishop(int sq, long occ) {
+        return BISHOP_TABLE[BISHOP_OFFSET[sq] + (int) (((occ & BISHOP_MASK[sq]) * BISHOP_MAGIC[sq]) >>> BISHOP_SHIFT[sq])];
+    }
+
+    /** Tempo gasto para conferir os números e preencher as tabelas (nanossegundos). */
+    public static long initNanos() { return INIT_NANOS; }
+
+    /** Entradas das duas tabelas somadas (ataques de torre + bispo). */
+    public static int tableEntries() { return ROOK_TABLE.length + BISHOP_TABLE.length; }
+
+    // ---------- Geração ----------
+
+    private static long[] build(boolean rook, long[] masks, long[] magics, int[] shifts, int[] offsets,
+                                long[] known, SplittableRandom rnd) {
+        int total = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            masks[sq] = relevantMask(sq, rook);
+            shifts[sq] = 64 - Long.bitCount(masks[sq]);
+            offsets[sq] = total;
+            total += 1 << Long.bitCount(masks[sq]);
+        }
+
+        long[] table = new long[total];
+        long[] occupancies = new long[4096];
+        long[] attacks = new long[4096];
+        int[] epoch = new int[4096]; // tentativa em que cada entrada foi usada (evita limpar a tabela)
+        int attempt = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            // Todas as ocupações do raio relevante (carry-rippler) e os ataques de cada uma
+            int n = 0;
+            long subset = 0;
+            do {
+                occupancies[n] = subset;
+                attacks[n] = rook ? Attacks.rookByRays(sq, subset) : Attacks.bishopByRays(sq, subset);
+                n++;
+                subset = (subset - masks[sq]) & masks[sq];
+            } while (subset != 0);
+
+            for (boolean first = true; ; first = false) {
+                // Primeiro o número já conhecido; só se ele falhar, busca outro
+                long magic = first && known != null ? known[sq] : rnd.nextLong() & rnd.nextLong() & rnd.nextLong();
+                if (!first && Long.bitCount((masks[sq] * magic) >>> 56) < 6) continue;
+                attempt++;
+                boolean ok = true;
+                for (int i = 0; i < n && ok; i++) {
+                    int idx = offsets[sq] + (int) ((occupancies[i] * magic) >>> shifts[sq]);
+                    int local = idx - offsets[sq];
+                    if (epoch[local] != attempt) {
+                        epoch[local] = attempt;
+                        table[idx] = attacks[i];
+                    } else if (table[idx] != attacks[i]) {
+                        ok = false; // colisão destrutiva: outro número
+                    }
+                }
+                if (ok) {
+                    magics[sq] = magic;
+                    break;
+                }
+            }
+        }
+        return table;
+    }
+
+    // Casas cujo conteúdo muda os ataques: os raios sem a casa da borda
+    private static long relevantMask(int sq, boolean rook) {
+        long edges = 0;
+        int r = sq >>> 3, c = sq & 7;
+        if (r != 0) edges |= 0xFFL;              // linha 8
+        if (r != 7) edges |= 0xFFL << 56;        // linha 1
+        if (c != 0) edges |= 0x0101010101010101L; // coluna a
+        if (c != 7) edges |= 0x8080808080808080L; // coluna h
+        long attacks = rook ? Attacks.rookByRays(sq, 0L) : Attacks.bishopByRays(sq, 0L);
+        return attacks & ~edges;
+    }
+
+    /** Busca os números do zero (com a mesma semente) e imprime os arrays para colar no código. */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        long[] rook = new long[64], bishop = new long[64];
+        build(true, new long[64], rook, new int[64], new int[64], null, rnd);
+        build(false, new long[64], bishop, new int[64], new int[64], null, rnd);
+        System.out.printf("// busca em %.1f ms%n", (System.nanoTime() - start) / 1e6);
+        System.out.println(format("KNOWN_ROOK", rook));
+        System.out.println(format("KNOWN_BISHOP", bishop));
+    }
+
+    private static String format(String name, long[] magics) {
+        StringBuilder sb = new StringBuilder("    private static final long[] " + name + " = {");
+        for (int i = 0; i < magics.length; i++) {
+            sb.append(i % 4 == 0 ? "\n        " : " ");
+            sb.append(String.format("0x%016XL,", magics[i]));
+        }
+        return sb.append("\n    };").toString();
+    }
+}
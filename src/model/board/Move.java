@@ -4,6 +4,11 @@ package model.board;
 import java.util.Objects;
 import model.pieces.Piece;
 
+/**
+ * Visão em objeto de um lance, para histórico, exibição e a interface.
+ * A geração e a busca usam a forma compactada ({@link PackedMove});
+ * {@link #decode} e {@link #pack()} convertem entre as duas.
+ */
 public class Move {
 
     private final Position from;
@@ -71,7 +76,43 @@ public class Move {
 
     @Override
     public int hashCode() {
-        return Objects.hash(from, to, moved, promotion, castleKingSide, castleQueenSide, enPassant);
+        // Só os campos comparados em equals (a peça capturada fica de fora); aceita casas nulas
+        int h = Objects.hashCode(from);
+        h = 31 * h + Objects.hashCode(to);
+        h = 31 * h + Objects.hashCode(moved);
+        h = 31 * h + Objects.hashCode(promotion);
+        return (h << 3) | (castleKingSide ? 4 : 0) | (castleQueenSide ? 2 : 0) | (enPassant ? 1 : 0);
+    }
+
+    // --- Forma compactada ---
+
+    /** Lance compactado equivalente (ver {@link PackedMove}). */
+    public int pack() {
+        int flag = enPassant ? PackedMove.FLAG_EN_PASSANT
+                : (castleKingSide || castleQueenSide) ? PackedMove.FLAG_CASTLE
+                : PackedMove.FLAG_NORMAL;
+        return PackedMove.encode(from.index(), to.index(),
+                moved != null ? moved.type() : Piece.PAWN,
+                captured != null ? captured.type() : -1,
+                flag,
+                promotion != null ? PackedMove.promotionType(promotion) : -1);
+    }
+
+    /**
+     * Monta a visão de um lance compactado sobre o tabuleiro ANTES do lance
+     * (de onde vêm as peças movida e capturada).
+     */
+    public static Move decode(int move, Board board) {
+        Position from = Position.of(PackedMove.from(move));
+        Position to = Position.of(PackedMove.to(move));
+        Piece moved = board.get(from);
+        if (PackedMove.isCastle(move)) return castle(from, to, moved, to.getColumn() == 6);
+        if (PackedMove.isEnPassant(move)) {
+            return enPassant(from, to, moved, board.get(Position.of(from.getRow(), to.getColumn())));
+        }
+        Character promo = PackedMove.promotionChar(move);
+        if (promo != null) return promotion(from, to, moved, board.get(to), promo);
+        return normal(from, to, moved, board.get(to));
     }
 
     // --- Fábricas convenientes ---
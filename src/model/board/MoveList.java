@@ -0,0 +1,92 @@
+// ========================= src/model/board/MoveList.java =========================
+package model.board;
+
+import java.util.Arrays;
+
+/**
+ * Lista reaproveitável de lances compactados ({@link PackedMove}) com uma
+ * nota por lance para ordenação. Cresce quando necessário e nunca encolhe:
+ * depois de aquecida, {@link #clear()} + {@link #add(int)} não alocam.
+ */
+public final class MoveList {
+
+    private int[] moves;
+    private int[] scores;
+    private int size;
+
+    public MoveList() {
+        this(256); // acima do máximo de lances legais numa posição (218)
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+        scores = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+            scores = Arrays.copyOf(scores, size * 2);
+        }
+        moves[size] = move;
+        scores[size++] = 0;
+    }
+
+    public int get(int i) { return moves[i]; }
+
+    public void set(int i, int move) { moves[i] = move; }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() { size = 0; }
+
+    /** Mantém só os {@code size} primeiros lances (usado para filtrar a lista no lugar). */
+    public void truncate(int size) { this.size = Math.min(this.size, size); }
+
+    public int score(int i) { return scores[i]; }
+
+    public void setScore(int i, int score) { scores[i] = score; }
+
+    /** Índice do lance, ou -1 se não estiver na lista. */
+    public int indexOf(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) return i;
+        }
+        return -1;
+    }
+
+    public void swap(int i, int j) {
+        int m = moves[i]; moves[i] = moves[j]; moves[j] = m;
+        int s = scores[i]; scores[i] = scores[j]; scores[j] = s;
+    }
+
+    /**
+     * Traz para a posição {@code start} o lance de maior nota entre start e o fim
+     * e o devolve (seleção incremental: só ordena o que a busca chega a usar).
+     */
+    public int pickBest(int start) {
+        return pickBest(start, size);
+    }
+
+    /** Como {@link #pickBest(int)}, mas só entre start e {@code end} (exclusivo). */
+    public int pickBest(int start, int end) {
+        int best = start;
+        for (int i = start + 1; i < end; i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        if (best != start) swap(start, best);
+        return moves[start];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(PackedMove.toUci(moves[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,88 @@
+// ========================= src/model/board/PackedMove.java =========================
+package model.board;
+
+import model.pieces.Piece;
+
+/**
+ * Lance compactado num {@code int}, para gerar e buscar sem criar objetos.
+ *
+ * Layout dos bits:
+ *   0-5   casa de origem (0..63)
+ *   6-11  casa de destino (0..63)
+ *   12-14 tipo da peça movida (Piece.PAWN..KING)
+ *   15-17 tipo da peça capturada + 1 (0 = sem captura)
+ *   18-19 especial: 0 normal, 1 en passant, 2 roque
+ *   20-22 tipo da peça de promoção (0 = sem promoção; o peão nunca é promovido a peão)
+ *
+ * {@link #NONE} (0) não é um lance válido (a8 → a8) e serve como "nenhum lance".
+ * Para histórico e exibição, {@link Move#decode} monta a visão em objeto.
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0;
+
+    public static final int FLAG_NORMAL = 0, FLAG_EN_PASSANT = 1, FLAG_CASTLE = 2;
+
+    private PackedMove() { }
+
+    /** Lance compactado; {@code captured} e {@code promotion} valem -1 quando não houver. */
+    public static int encode(int from, int to, int piece, int captured, int flag, int promotion) {
+        return from
+                | (to << 6)
+                | (piece << 12)
+                | ((captured + 1) << 15)
+                | (flag << 18)
+                | ((promotion < 0 ? 0 : promotion) << 20);
+    }
+
+    public static int from(int move) { return move & 0x3F; }
+
+    public static int to(int move) { return (move >>> 6) & 0x3F; }
+
+    /** Tipo da peça movida (Piece.PAWN..KING). */
+    public static int piece(int move) { return (move >>> 12) & 0x7; }
+
+    /** Tipo da peça capturada, ou -1 se o lance não captura. */
+    public static int captured(int move) { return ((move >>> 15) & 0x7) - 1; }
+
+    public static boolean isCapture(int move) { return (move & (0x7 << 15)) != 0; }
+
+    public static boolean isEnPassant(int move) { return ((move >>> 18) & 0x3) == FLAG_EN_PASSANT; }
+
+    public static boolean isCastle(int move) { return ((move >>> 18) & 0x3) == FLAG_CASTLE; }
+
+    /** Tipo da peça de promoção, ou -1 se não for promoção. */
+    public static int promotion(int move) {
+        int p = (move >>> 20) & 0x7;
+        return p == 0 ? -1 : p;
+    }
+
+    /** Letra da promoção ('Q','R','B','N') ou null. */
+    public static Character promotionChar(int move) {
+        return switch (promotion(move)) {
+            case Piece.KNIGHT -> 'N';
+            case Piece.BISHOP -> 'B';
+            case Piece.ROOK -> 'R';
+            case Piece.QUEEN -> 'Q';
+            default -> null;
+        };
+    }
+
+    /** Tipo de peça de uma letra de promoção ('Q','R','B','N'); null vira dama. */
+    public static int promotionType(Character ch) {
+        if (ch == null) return Piece.QUEEN;
+        return switch (Character.toUpperCase(ch)) {
+            case 'N' -> Piece.KNIGHT;
+            case 'B' -> Piece.BISHOP;
+            case 'R' -> Piece.ROOK;
+            default -> Piece.QUEEN;
+        };
+    }
+
+    /** Notação longa (e2e4, e7e8q). */
+    public static String toUci(int move) {
+        String s = "" + Position.of(from(move)) + Position.of(to(move));
+        Character promo = promotionChar(move);
+        return promo == null ? s : s + Character.toLowerCase(promo);
+    }
+}
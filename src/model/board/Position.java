@@ -1,24 +1,64 @@
 // ========================= src/model/board/Position.java =========================
 package model.board;
 
-import java.util.Objects;
-
+/**
+ * Casa do tabuleiro. As instâncias são compartilhadas (flyweight): obtenha-as
+ * sempre por {@link #of(int, int)}, que devolve o mesmo objeto para a mesma
+ * casa — por isso {@code ==} também serve para comparar posições.
+ *
+ * Além das 64 casas válidas, o cache cobre duas linhas/colunas de folga em
+ * volta do tabuleiro (saltos de cavalo, avanço duplo do peão), para que a
+ * geração de lances não aloque nem ao testar casas de fora.
+ */
 public final class Position {
 
+    // Folga em volta do tabuleiro coberta pelo cache
+    private static final int MARGIN = 2;
+    private static final int SIDE = 8 + 2 * MARGIN;
+    private static final Position[] CACHE = new Position[SIDE * SIDE];
+
+    static {
+        for (int r = -MARGIN; r < 8 + MARGIN; r++) {
+            for (int c = -MARGIN; c < 8 + MARGIN; c++) {
+                CACHE[(r + MARGIN) * SIDE + (c + MARGIN)] = new Position(r, c);
+            }
+        }
+    }
+
     private final int row;    // 0..7 (0 = topo / linha 8, 7 = fundo / linha 1)
     private final int column; // 0..7 (0 = 'a', 7 = 'h')
+    private final int index;  // linha * 8 + coluna, ou -1 fora do tabuleiro
+    private final int hash;
 
-    public Position(int row, int column) {
+    private Position(int row, int column) {
         this.row = row;
         this.column = column;
+        boolean valid = row >= 0 && row < 8 && column >= 0 && column < 8;
+        this.index = valid ? row * 8 + column : -1;
+        this.hash = 31 * row + column;
+    }
+
+    /** Posição compartilhada da casa (linha, coluna); fora da folga do cache, cria uma nova. */
+    public static Position of(int row, int column) {
+        int r = row + MARGIN, c = column + MARGIN;
+        if (r >= 0 && r < SIDE && c >= 0 && c < SIDE) return CACHE[r * SIDE + c];
+        return new Position(row, column);
+    }
+
+    /** Posição da casa 0..63 (linha * 8 + coluna). */
+    public static Position of(int square) {
+        return CACHE[((square >>> 3) + MARGIN) * SIDE + (square & 7) + MARGIN];
     }
 
     public int getRow() { return row; }
     public int getColumn() { return column; }
 
+    /** Índice 0..63 (linha * 8 + coluna), ou -1 se a posição estiver fora do tabuleiro. */
+    public int index() { return index; }
+
     /** Retorna true se a posição estiver dentro do tabuleiro 8x8. */
     public boolean isValid() {
-        return row >= 0 && row < 8 && column >= 0 && column < 8;
+        return index >= 0;
     }
 
     @Override
@@ -31,7 +71,7 @@ public final class Position {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, column);
+        return hash;
     }
 
     /** Notação algébrica padrão (ex: a1, e4, h8). */
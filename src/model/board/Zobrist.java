@@ -0,0 +1,69 @@
+// ========================= src/model/board/Zobrist.java =========================
+package model.board;
+
+import java.util.SplittableRandom;
+import model.pieces.Piece;
+
+/**
+ * Chaves aleatórias de Zobrist (64 bits) para identificar posições.
+ * Uma posição = XOR das chaves de cada (peça, casa), do lado a jogar,
+ * dos direitos de roque e da coluna de en passant.
+ *
+ * As tabelas são geradas com semente fixa, então a mesma posição tem a
+ * mesma chave em qualquer execução.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    // [tipo + (branca ? 0 : 6)][casa 0..63]
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    // Direitos de roque como máscara de 4 bits (ver CASTLE_* abaixo)
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    // Bits da máscara de direitos de roque
+    public static final int CASTLE_WHITE_KING = 1, CASTLE_WHITE_QUEEN = 2,
+                            CASTLE_BLACK_KING = 4, CASTLE_BLACK_QUEEN = 8;
+
+    static {
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int sq = 0; sq < 64; sq++) squares[sq] = rnd.nextLong();
+        }
+        // Cada direito tem sua chave; a combinação é o XOR delas (CASTLING[0] = 0)
+        long[] rights = {rnd.nextLong(), rnd.nextLong(), rnd.nextLong(), rnd.nextLong()};
+        for (int mask = 0; mask < 16; mask++) {
+            long k = 0;
+            for (int bit = 0; bit < 4; bit++) {
+                if ((mask & (1 << bit)) != 0) k ^= rights[bit];
+            }
+            CASTLING[mask] = k;
+        }
+        for (int f = 0; f < 8; f++) EN_PASSANT_FILE[f] = rnd.nextLong();
+        BLACK_TO_MOVE = rnd.nextLong();
+    }
+
+    private Zobrist() { }
+
+    /** Chave de uma peça numa casa 0..63. */
+    public static long piece(Piece p, int square) {
+        return PIECE_SQUARE[p.type() + (p.isWhite() ? 0 : 6)][square];
+    }
+
+    /** Chave dos direitos de roque (máscara de 4 bits). */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /** Chave da coluna de en passant (0..7), ou 0 se não houver (-1). */
+    public static long enPassant(int file) {
+        return file < 0 ? 0L : EN_PASSANT_FILE[file];
+    }
+
+    /** Chave do lado a jogar (entra no XOR quando as pretas jogam). */
+    public static long sideToMove(boolean whiteToMove) {
+        return whiteToMove ? 0L : BLACK_TO_MOVE;
+    }
+}
@@ -3,48 +3,30 @@ package model.pieces;
 
 import java.util.ArrayList;
 import java.util.List;
+import model.board.Attacks;
 import model.board.Board;
+import model.board.MoveList;
 import model.board.Position;
 
 public class King extends Piece {
 
-    public King(Board b, boolean w) { super(b, w); }
+    King(boolean w) { super(w); }
 
     @Override
     public String getSymbol() { return "K"; }
 
     @Override
-    public Piece copyFor(Board newBoard) {
-        King k = new King(newBoard, isWhite);
-        k.moved = this.moved;
-        if (this.position != null) {
-            k.setPosition(new Position(this.position.getRow(), this.position.getColumn()));
-        }
-        return k;
-    }
+    public int type() { return KING; }
 
     @Override
-    public List<Position> getPossibleMoves() {
-        List<Position> moves = new ArrayList<>();
-        if (position == null || board == null) return moves;
-
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) continue;
-                int r = position.getRow() + dr;
-                int c = position.getColumn() + dc;
-                if (r < 0 || r > 7 || c < 0 || c > 7) continue;
-
-                Position to = new Position(r, c);
-                Piece occ = board.get(to);
-                if (occ == null || occ.isWhite() != this.isWhite) {
-                    moves.add(to);
-                }
-            }
-        }
-
+    public List<Position> getPossibleMoves(Board board, Position from) {
         // Roques são tratados no controller.Game (candidatos adicionados lá)
-        return moves;
+        return targetsOf(board, Attacks.king(from.index()));
+    }
+
+    @Override
+    public void generateMoves(Board board, int from, MoveList out) {
+        addTargets(board, from, out, Attacks.king(from));
     }
 
     /**
@@ -52,18 +34,10 @@ public class King extends Piece {
      * Útil se quiser consultar ataques por peça diretamente.
      */
     @Override
-    public List<Position> getAttacks() {
+    public List<Position> getAttacks(Board board, Position from) {
         List<Position> attacks = new ArrayList<>();
-        if (position == null) return attacks;
-
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) continue;
-                int r = position.getRow() + dr;
-                int c = position.getColumn() + dc;
-                if (r < 0 || r > 7 || c < 0 || c > 7) continue;
-                attacks.add(new Position(r, c));
-            }
+        for (long k = Attacks.king(from.index()); k != 0; k &= k - 1) {
+            attacks.add(Position.of(Long.numberOfTrailingZeros(k)));
         }
         return attacks;
     }
@@ -6,8 +6,8 @@ import model.board.*;
 
 public class Pawn extends Piece {
 
-    public Pawn(Board b, boolean w) {
-        super(b, w);
+    Pawn(boolean w) {
+        super(w);
     }
 
     @Override
@@ -16,35 +16,30 @@ public class Pawn extends Piece {
     }
 
     @Override
-    public Piece copyFor(Board newBoard) {
-        Pawn clone = new Pawn(newBoard, isWhite);
-        clone.moved = this.moved;
-        if (this.position != null) {
-            clone.setPosition(new Position(position.getRow(), position.getColumn()));
-        }
-        return clone;
+    public int type() {
+        return PAWN;
     }
 
     @Override
-    public List<Position> getPossibleMoves() {
+    public List<Position> getPossibleMoves(Board board, Position position) {
         List<Position> moves = new ArrayList<>();
         int dir = isWhite ? -1 : 1;
 
         // Um passo à frente
-        Position f1 = new Position(position.getRow() + dir, position.getColumn());
+        Position f1 = Position.of(position.getRow() + dir, position.getColumn());
         if (f1.isValid() && board.get(f1) == null) {
             moves.add(f1);
 
-            // Dois passos à frente (se ainda não moveu)
-            Position f2 = new Position(position.getRow() + 2 * dir, position.getColumn());
-            if (!moved && f2.isValid() && board.get(f2) == null) {
+            // Dois passos à frente (só da fileira inicial)
+            Position f2 = Position.of(position.getRow() + 2 * dir, position.getColumn());
+            if (position.getRow() == startRow() && board.get(f2) == null) {
                 moves.add(f2);
             }
         }
 
         // Capturas diagonais
-        Position left = new Position(position.getRow() + dir, position.getColumn() - 1);
-        Position right = new Position(position.getRow() + dir, position.getColumn() + 1);
+        Position left = Position.of(position.getRow() + dir, position.getColumn() - 1);
+        Position right = Position.of(position.getRow() + dir, position.getColumn() + 1);
 
         if (left.isValid()) {
             Piece target = board.get(left);
@@ -64,12 +59,52 @@ public class Pawn extends Piece {
     }
 
     @Override
-    public List<Position> getAttacks() {
+    public void generateMoves(Board board, int from, MoveList out) {
+        int dir = isWhite ? -1 : 1;
+        int r = (from >>> 3) + dir, c = from & 7;
+        if (r < 0 || r > 7) return;
+
+        // Avanços (duplo só da fileira inicial)
+        if (board.pieceAt(r * 8 + c) == null) {
+            addPawnMove(out, from, r * 8 + c, -1);
+            int r2 = r + dir;
+            if ((from >>> 3) == startRow() && board.pieceAt(r2 * 8 + c) == null) {
+                addPawnMove(out, from, r2 * 8 + c, -1);
+            }
+        }
+
+        // Capturas diagonais (tabela de ataques de peão)
+        for (long t = Attacks.pawn(isWhite, from); t != 0; t &= t - 1) {
+            int to = Long.numberOfTrailingZeros(t);
+            Piece target = board.pieceAt(to);
+            if (target != null && target.isWhite() != isWhite) addPawnMove(out, from, to, target.type());
+        }
+    }
+
+    // Fileira de onde o peão ainda pode avançar duas casas
+    private int startRow() {
+        return isWhite ? 6 : 1;
+    }
+
+    // Na última fileira, um lance por peça de promoção
+    private void addPawnMove(MoveList out, int from, int to, int captured) {
+        int row = to >>> 3;
+        if (row == 0 || row == 7) {
+            for (int promo = QUEEN; promo >= KNIGHT; promo--) {
+                out.add(PackedMove.encode(from, to, PAWN, captured, PackedMove.FLAG_NORMAL, promo));
+            }
+        } else {
+            out.add(PackedMove.encode(from, to, PAWN, captured, PackedMove.FLAG_NORMAL, -1));
+        }
+    }
+
+    @Override
+    public List<Position> getAttacks(Board board, Position position) {
         List<Position> attacks = new ArrayList<>();
         int dir = isWhite ? -1 : 1;
 
-        Position left = new Position(position.getRow() + dir, position.getColumn() - 1);
-        Position right = new Position(position.getRow() + dir, position.getColumn() + 1);
+        Position left = Position.of(position.getRow() + dir, position.getColumn() - 1);
+        Position right = Position.of(position.getRow() + dir, position.getColumn() + 1);
 
         if (left.isValid()) attacks.add(left);
         if (right.isValid()) attacks.add(right);
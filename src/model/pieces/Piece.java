@@ -3,50 +3,70 @@ package model.pieces;
 
 
 import model.board.Board;
+import model.board.MoveList;
+import model.board.PackedMove;
 import model.board.Position;
 import java.util.*;
 
 
+// Peça sem estado: só tipo e cor. Há exatamente 12 instâncias (Piece.of), compartilhadas
+// por todos os tabuleiros; a casa e o tabuleiro vêm como parâmetros.
 public abstract class Piece {
-protected Position position;
+// Tipos de peça (também usados como índice dos bitboards)
+public static final int PAWN = 0, KNIGHT = 1, BISHOP = 2, ROOK = 3, QUEEN = 4, KING = 5;
+
+// Índice = tipo + (branca ? 0 : 6), como os bitboards
+private static final Piece[] FLYWEIGHTS = {
+new Pawn(true), new Knight(true), new Bishop(true), new Rook(true), new Queen(true), new King(true),
+new Pawn(false), new Knight(false), new Bishop(false), new Rook(false), new Queen(false), new King(false)
+};
+
+
 protected final boolean isWhite;
-protected final Board board;
-protected boolean moved = false;
 
 
-public Piece(Board board, boolean isWhite) {
-this.board = board; this.isWhite = isWhite;
-}
+protected Piece(boolean isWhite){ this.isWhite = isWhite; }
+
+
+/** A peça (compartilhada) de um tipo PAWN..KING e cor. */
+public static Piece of(int type, boolean white){ return FLYWEIGHTS[type + (white ? 0 : 6)]; }
 
 
 public boolean isWhite(){ return isWhite; }
-public Position getPosition(){ return position; }
-public void setPosition(Position position){ this.position = position; }
-public boolean hasMoved(){ return moved; }
-public void setMoved(boolean moved){ this.moved = moved; }
 
 
-// Pseudo-movimentos (não filtram xeque ao próprio rei)
-public abstract List<Position> getPossibleMoves();
+// Pseudo-movimentos a partir de `from` (não filtram xeque ao próprio rei)
+public abstract List<Position> getPossibleMoves(Board board, Position from);
 // Casas atacadas (para peão difere dos possíveis)
-public List<Position> getAttacks(){ return getPossibleMoves(); }
+public List<Position> getAttacks(Board board, Position from){ return getPossibleMoves(board, from); }
+// Mesmos pseudo-movimentos, sem alocar: grava em out como PackedMove (promoções
+// expandidas em Q, R, B, N); roque e en passant continuam por conta do Game
+public abstract void generateMoves(Board board, int from, MoveList out);
 
 
 public abstract String getSymbol(); // K,Q,R,B,N,P
+public abstract int type();          // PAWN..KING
 
 
-// Fábrica de cópia para outro board
-public abstract Piece copyFor(Board newBoard);
+@Override
+public String toString(){ return (isWhite ? "w" : "b") + getSymbol(); }
 
 
-protected boolean empty(int r, int c){ return new Position(r,c).isValid() && board.get(new Position(r,c))==null; }
-protected boolean enemy(int r, int c){
-Position p = new Position(r,c);
-if(!p.isValid()) return false; Piece q = board.get(p);
-return q!=null && q.isWhite()!=this.isWhite;
+// Lances para as casas de uma máscara de ataque (tabelas de Attacks), exceto as de peças próprias
+protected void addTargets(Board board, int from, MoveList out, long targets){
+for(; targets!=0; targets &= targets-1){
+int to = Long.numberOfTrailingZeros(targets); Piece q = board.pieceAt(to);
+if(q==null) out.add(PackedMove.encode(from, to, type(), -1, PackedMove.FLAG_NORMAL, -1));
+else if(q.isWhite()!=this.isWhite) out.add(PackedMove.encode(from, to, type(), q.type(), PackedMove.FLAG_NORMAL, -1));
+}
+}
+// Casas de uma máscara de ataque que a peça pode ocupar (livres ou com inimigo)
+protected List<Position> targetsOf(Board board, long targets){
+List<Position> list = new ArrayList<>(Long.bitCount(targets));
+for(; targets!=0; targets &= targets-1){
+int to = Long.numberOfTrailingZeros(targets); Piece q = board.pieceAt(to);
+if(q==null || q.isWhite()!=this.isWhite) list.add(Position.of(to));
+}
+return list;
 }
-protected void addIfFreeOrEnemy(List<Position> list, int r, int c){
-Position p = new Position(r,c); if(!p.isValid()) return;
-var q = board.get(p); if(q==null || q.isWhite()!=this.isWhite) list.add(p);
 }
-}
\ No newline at end of file
@@ -1,16 +1,20 @@
 package view;
 
 import controller.Game;
+import engine.LazySmp;
+import engine.Search;
+import engine.SearchResult;
+import engine.TimeManager;
+import engine.TranspositionTable;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Random;
 import javax.swing.*;
 import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
+import model.board.Move;
 import model.board.Position;
 import model.pieces.Pawn;
 import model.pieces.Piece;
@@ -64,7 +68,10 @@ public class ChessGUI extends JFrame {
     private List<Position> legalForSelected = new ArrayList<>();
     private Position lastFrom = null, lastTo = null;
     private boolean aiThinking = false;
-    private final Random rnd = new Random();
+    // Busca paralela do PC; a tabela de transposição é mantida entre os lances
+    // (threads e tamanho da tabela: -Dchess.threads e -Dchess.hashMb)
+    private final LazySmp engine = new LazySmp(LazySmp.defaultThreads(),
+            TranspositionTable.ofMegabytes(TranspositionTable.defaultMegabytes()));
 
     private boolean isPcPlayingBlack = false;
 
@@ -102,7 +109,7 @@ public class ChessGUI extends JFrame {
                 p.addMouseListener(new MouseAdapter() {
                     @Override
                     public void mousePressed(MouseEvent e) {
-                        handleClick(new Position(rr, cc));
+                        handleClick(Position.of(rr, cc));
                     }
                 });
                 squares[r][c] = p;
@@ -222,7 +229,7 @@ public class ChessGUI extends JFrame {
         levelLabel.setForeground(ACCENT_WHITE);
         aiLevelPanel.add(levelLabel);
         aiLevelPanel.add(Box.createHorizontalStrut(10));
-        Integer[] difficultyLevels = {1, 2};
+        Integer[] difficultyLevels = {1, 2, 3};
         difficultyComboBox = new JComboBox<>(difficultyLevels);
         styleComboBox(difficultyComboBox);
         difficultyComboBox.setEnabled(isPcPlayingBlack);
@@ -338,6 +345,7 @@ public class ChessGUI extends JFrame {
         aiThinking = false;
         isGameActive = false;
         game.newGame();
+        engine.table().clear();
         historyModel.clear();
 
         String selectedTimeControl = (String) timeControlComboBox.getSelectedItem();
@@ -504,44 +512,25 @@ public class ChessGUI extends JFrame {
         aiThinking = true;
         refresh();
 
-        new SwingWorker<Move, Void>() {
-            @Override
-            protected Move doInBackground() {
-                int level = (Integer) difficultyComboBox.getSelectedItem();
-
-                if (level <= 1) {
-                    var allMoves = collectAllLegalMovesForSide(false);
-                    if (allMoves.isEmpty()) {
-                        return null;
-                    }
-                    return allMoves.get(rnd.nextInt(allMoves.size()));
-                }
+        int level = (Integer) difficultyComboBox.getSelectedItem();
+        Game snapshot = game.copy();
+        long remaining = snapshot.whiteToMove() ? whiteTimeMillis : blackTimeMillis;
+        TimeManager time = TimeManager.forClock(remaining, incrementMillis, snapshot);
 
-                if (level == 2) {
-                    var allMoves = collectAllLegalMovesForSide(false);
-                    if (allMoves.isEmpty()) {
-                        return null;
-                    }
-                    return pickBestMoveLevel2(allMoves);
-                }
-
-                var allMoves = collectAllLegalMovesForSide(false);
-                if (allMoves.isEmpty()) {
-                    return null;
-                }
-                return allMoves.get(rnd.nextInt(allMoves.size()));
+        new SwingWorker<SearchResult, Void>() {
+            @Override
+            protected SearchResult doInBackground() {
+                return engine.search(snapshot, Search.depthForLevel(level), time);
             }
 
             @Override
             protected void done() {
                 try {
-                    Move bestMove = get();
+                    Move bestMove = get().bestMove();
                     if (bestMove != null && !game.isGameOver() && isGameActive) {
-                        lastFrom = bestMove.from();
-                        lastTo = bestMove.to();
-                        Character promo = (game.board().get(lastFrom) instanceof Pawn && game.isPromotion(lastFrom, lastTo)) ? 'Q' : null;
-
-                        game.move(lastFrom, lastTo, promo);
+                        lastFrom = bestMove.getFrom();
+                        lastTo = bestMove.getTo();
+                        game.move(lastFrom, lastTo, bestMove.getPromotion());
                         blackTimeMillis += incrementMillis;
                     }
                 } catch (Exception e) {
@@ -555,83 +544,10 @@ public class ChessGUI extends JFrame {
         }.execute();
     }
 
-    private record Move(Position from, Position to) {
-
-    }
-
-    private List<Move> collectAllLegalMovesForSide(boolean whiteSide) {
-        List<Move> moves = new ArrayList<>();
-        if (whiteSide != game.whiteToMove()) {
-            return moves;
-        }
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position from = new Position(r, c);
-                if (game.board().get(from) != null && game.board().get(from).isWhite() == whiteSide) {
-                    for (Position to : game.legalMovesFrom(from)) {
-                        moves.add(new Move(from, to));
-                    }
-                }
-            }
-        }
-        return moves;
-    }
-
-    private Move pickBestMoveLevel2(List<Move> allMoves) {
-        class ScoredMove {
-
-            Move m;
-            double score;
-
-            ScoredMove(Move m, double s) {
-                this.m = m;
-                this.score = s;
-            }
-        }
-        List<ScoredMove> scored = new ArrayList<>();
-
-        for (Move mv : allMoves) {
-            Piece moving = game.board().get(mv.from());
-            Piece captured = game.board().get(mv.to());
-            double s = 0.0;
-
-            if (captured != null) {
-                s += pieceValue(captured) * 2.0;
-            }
-
-            if (game.board().get(mv.from()) instanceof Pawn && game.isPromotion(mv.from(), mv.to())) {
-                s += 9000;
-            }
-
-            s += centerBonus(mv.to()) * 10;
-
-            int mobility = game.legalMovesFrom(mv.from()).size();
-            s += mobility * 3;
-
-            s += rnd.nextDouble() * 5.0;
-
-            scored.add(new ScoredMove(mv, s));
-        }
-
-        scored.sort(Comparator.comparingDouble((ScoredMove sm) -> sm.score).reversed());
-
-        int K = Math.max(1, Math.min(8, scored.size()));
-        double bestScore = scored.get(0).score;
-
-        List<ScoredMove> topCandidates = new ArrayList<>();
-        for (int i = 0; i < scored.size() && i < K; i++) {
-            if (scored.get(i).score >= bestScore - 50) {
-                topCandidates.add(scored.get(i));
-            }
-        }
-        ScoredMove choice = topCandidates.get(rnd.nextInt(topCandidates.size()));
-        return choice.m;
-    }
-
     private boolean isSquareAttackedBy(Position targetSquare, boolean isWhiteAttacker, Game game) {
         for (int r = 0; r < 8; r++) {
             for (int c = 0; c < 8; c++) {
-                Position currentPos = new Position(r, c);
+                Position currentPos = Position.of(r, c);
                 Piece piece = game.board().get(currentPos);
                 if (piece != null && piece.isWhite() == isWhiteAttacker) {
                     if ("P".equalsIgnoreCase(piece.getSymbol())) {
@@ -640,7 +556,7 @@ public class ChessGUI extends JFrame {
                             return true;
                         }
                     } else {
-                        if (piece.getPossibleMoves().contains(targetSquare)) {
+                        if (piece.getPossibleMoves(game.board(), currentPos).contains(targetSquare)) {
 
                         }
                     }
@@ -650,37 +566,6 @@ public class ChessGUI extends JFrame {
         return false;
     }
 
-    private int pieceValue(Piece p) {
-        if (p == null) {
-            return 0;
-        }
-        return switch (p.getSymbol().toUpperCase()) {
-            case "P" ->
-                100;
-            case "N", "B" ->
-                300;
-            case "R" ->
-                500;
-            case "Q" ->
-                900;
-            case "K" ->
-                10000;
-            default ->
-                0;
-        };
-    }
-
-    private int centerBonus(Position pos) {
-        int r = pos.getRow(), c = pos.getColumn();
-        if ((r == 3 || r == 4) && (c == 3 || c == 4)) {
-            return 15;
-        }
-        if ((r >= 2 && r <= 5) && (c >= 2 && c <= 5)) {
-            return 5;
-        }
-        return 0;
-    }
-
     private void refresh() {
         for (int r = 0; r < 8; r++) {
             for (int c = 0; c < 8; c++) {
@@ -710,7 +595,7 @@ public class ChessGUI extends JFrame {
                 JPanel squarePanel = squares[r][c];
                 squarePanel.removeAll();
 
-                Piece p = game.board().get(new Position(r, c));
+                Piece p = game.board().get(Position.of(r, c));
                 if (p != null) {
                     JLabel pieceLabel = new JLabel();
                     pieceLabel.setHorizontalAlignment(SwingConstants.CENTER);
@@ -739,18 +624,16 @@ public class ChessGUI extends JFrame {
             }
         }
 
-        historyModel.clear();
+        // Uma linha por par de lances. A cada lance só a última linha muda (ou surge uma nova):
+        // refaz a partir dela em vez de remontar a lista inteira
         var hist = game.history();
-        StringBuilder line = new StringBuilder();
-        for (int i = 0; i < hist.size(); i++) {
-            if (i % 2 == 0) {
-                line = new StringBuilder();
-                line.append((i / 2) + 1).append(". ");
-            }
-            line.append(hist.get(i)).append(" ");
-            if (i % 2 == 1 || i == hist.size() - 1) {
-                historyModel.addElement(line.toString().trim());
-            }
+        int lines = (hist.size() + 1) / 2;
+        int first = historyModel.getSize() > lines ? 0 : Math.max(0, historyModel.getSize() - 1);
+        while (historyModel.getSize() > first) historyModel.remove(historyModel.getSize() - 1);
+        for (int l = first; l < lines; l++) {
+            String line = (l + 1) + ". " + hist.get(2 * l);
+            if (2 * l + 1 < hist.size()) line += " " + hist.get(2 * l + 1);
+            historyModel.addElement(line);
         }
         if (!historyModel.isEmpty()) {
             historyList.setSelectedIndex(historyModel.getSize() - 1);
@@ -767,9 +650,14 @@ public class ChessGUI extends JFrame {
             gameTimer.stop();
         }
 
-        String msg = game.inCheck(game.whiteToMove())
+        String msg = game.drawReason() == null
                 ? "Xeque-mate! " + (game.whiteToMove() ? "Laranjas venceram." : "Brancas venceram.")
-                : "Empate por afogamento";
+                : switch (game.drawReason()) {
+                    case STALEMATE -> "Empate por afogamento";
+                    case FIFTY_MOVES -> "Empate pela regra dos 50 lances";
+                    case THREEFOLD_REPETITION -> "Empate por repetição tripla";
+                    case INSUFFICIENT_MATERIAL -> "Empate por material insuficiente";
+                };
 
         showModernEndgameDialog("Fim de Jogo", msg);
     }